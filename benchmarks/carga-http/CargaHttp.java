@@ -0,0 +1,130 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de carga en lazo cerrado: N clientes piden la URL una y otra vez durante el tiempo
+ * indicado y al final se imprime rendimiento, p50, p99 y errores. Los primeros segundos son de
+ * calentamiento y no cuentan.
+ *
+ * Uso: java CargaHttp.java URL [clientes=200] [segundos=30] [calentamiento=10] [token]
+ * Con -Dcuerpo=archivo.json se envía POST con ese cuerpo en lugar de GET (ej: /auth/login).
+ */
+public class CargaHttp {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Uso: java CargaHttp.java URL [clientes] [segundos] [calentamiento] [token]");
+            System.exit(2);
+        }
+        URI uri = URI.create(args[0]);
+        int clientes = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int calentamiento = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        String token = args.length > 4 ? args[4] : null;
+
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest.Builder base = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30));
+        String cuerpo = System.getProperty("cuerpo");
+        if (cuerpo != null) {
+            base.header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofFile(Path.of(cuerpo)));
+        } else {
+            base.GET();
+        }
+        if (token != null) {
+            base.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest request = base.build();
+
+        long inicio = System.nanoTime();
+        long desde = inicio + Duration.ofSeconds(calentamiento).toNanos();
+        long hasta = desde + Duration.ofSeconds(segundos).toNanos();
+
+        AtomicLong errores = new AtomicLong();
+        AtomicLong rechazadas = new AtomicLong();
+        List<long[]> latenciasPorCliente = new ArrayList<>(clientes);
+        int[] cantidades = new int[clientes];
+        CountDownLatch fin = new CountDownLatch(clientes);
+
+        for (int c = 0; c < clientes; c++) {
+            int indice = c;
+            long[] latencias = new long[1 << 16];
+            latenciasPorCliente.add(latencias);
+            Thread hilo = new Thread(() -> {
+                long[] propias = latencias;
+                int n = 0;
+                try {
+                    long ahora;
+                    while ((ahora = System.nanoTime()) < hasta) {
+                        int estado;
+                        try {
+                            estado = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            estado = -1;
+                        }
+                        long despues = System.nanoTime();
+                        if (ahora < desde) {
+                            continue;
+                        }
+                        if (estado == 503) {
+                            // Rechazo del límite de concurrencia: es carga descartada, no un fallo
+                            rechazadas.incrementAndGet();
+                        } else if (estado < 200 || estado >= 400) {
+                            errores.incrementAndGet();
+                        } else {
+                            if (n == propias.length) {
+                                propias = Arrays.copyOf(propias, n * 2);
+                                latenciasPorCliente.set(indice, propias);
+                            }
+                            propias[n++] = despues - ahora;
+                        }
+                    }
+                } finally {
+                    cantidades[indice] = n;
+                    fin.countDown();
+                }
+            }, "cliente-" + c);
+            hilo.setDaemon(true);
+            hilo.start();
+        }
+        fin.await();
+
+        int total = 0;
+        for (int n : cantidades) {
+            total += n;
+        }
+        long[] todas = new long[total];
+        int posicion = 0;
+        for (int c = 0; c < clientes; c++) {
+            System.arraycopy(latenciasPorCliente.get(c), 0, todas, posicion, cantidades[c]);
+            posicion += cantidades[c];
+        }
+        Arrays.sort(todas);
+
+        System.out.printf("url=%s clientes=%d segundos=%d%n", uri, clientes, segundos);
+        System.out.printf("peticiones_ok=%d rechazadas_503=%d errores=%d%n", total, rechazadas.get(), errores.get());
+        System.out.printf("rendimiento=%.1f req/s%n", (double) total / segundos);
+        System.out.printf("p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                percentil(todas, 0.50), percentil(todas, 0.99), total == 0 ? 0.0 : todas[total - 1] / 1e6);
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0.0;
+        }
+        int i = (int) Math.ceil(p * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, Math.min(i, ordenadas.length - 1))] / 1e6;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.jeaauth.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Ejecutor de hilos virtuales por reflexión, para seguir compilando con Java 17. Es el mismo que
+ * usa jea-catalogo; no hay un módulo compartido y este servicio usa javax en lugar de jakarta.
+ */
+public final class HilosVirtuales {
+
+    private static final Logger log = LoggerFactory.getLogger(HilosVirtuales.class);
+
+    private HilosVirtuales() {
+    }
+
+    /**
+     * Un hilo virtual nuevo por tarea, con nombres "prefijo0", "prefijo1", ...
+     * Vacío si la JVM no tiene hilos virtuales.
+     */
+    public static Optional<ExecutorService> executorPorTarea(String prefijo) {
+        try {
+            // Thread.ofVirtual().name(prefijo, 0).factory()
+            Object constructor = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            constructor = ofVirtual.getMethod("name", String.class, long.class).invoke(constructor, prefijo, 0L);
+            ThreadFactory fabrica = (ThreadFactory) Class.forName("java.lang.Thread$Builder")
+                    .getMethod("factory").invoke(constructor);
+
+            // Executors.newThreadPerTaskExecutor(fabrica)
+            Method porTarea = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return Optional.of((ExecutorService) porTarea.invoke(null, fabrica));
+        } catch (ReflectiveOperationException e) {
+            log.warn("La JVM actual ({}) no tiene hilos virtuales; se usan hilos de plataforma",
+                    System.getProperty("java.version"));
+            return Optional.empty();
+        }
+    }
+}
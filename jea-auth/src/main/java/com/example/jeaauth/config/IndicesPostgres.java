@@ -0,0 +1,37 @@
+package com.example.jeaauth.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Índices que @Index no puede declarar. Con ddl-auto: update Hibernate crea las tablas y los índices
+ * de las entidades, pero no elige la clase de operadores: en PostgreSQL un LIKE 'prefijo%' solo usa un
+ * índice btree si la base tiene collation C o el índice es varchar_pattern_ops. Se crean al arrancar,
+ * cuando Hibernate ya actualizó el esquema; si no se pueden crear el servicio no arranca.
+ */
+@Component
+public class IndicesPostgres {
+
+    private static final Logger log = LoggerFactory.getLogger(IndicesPostgres.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void crear() {
+        String motor = jdbcTemplate.execute(
+                (ConnectionCallback<String>) conexion -> conexion.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(motor)) {
+            return;
+        }
+        // Prefijo de DNI del listado de usuarios (UsuarioRepository.FILTROS_LISTADO)
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_usuario_dni_prefijo ON usuario (dni varchar_pattern_ops)");
+        log.info("Índices de PostgreSQL verificados");
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.jeaauth.config;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Límite de peticiones simultáneas para el modo de hilos virtuales: unas pocas por conexión de
+ * HikariCP; las demás esperan hasta hilos-virtuales.espera-ms y después reciben 503 con Retry-After.
+ * Una petición asíncrona conserva su permiso hasta que termina, igual que en jea-catalogo.
+ */
+public class LimiteConcurrenciaFilter extends OncePerRequestFilter {
+
+    private final Semaphore permisos;
+    private final long esperaMs;
+    private final List<String> rutasExcluidas;
+
+    public LimiteConcurrenciaFilter(int maximo, long esperaMs, List<String> rutasExcluidas) {
+        this.permisos = new Semaphore(maximo, true);
+        this.esperaMs = esperaMs;
+        this.rutasExcluidas = rutasExcluidas;
+    }
+
+    // Lo que no usa la base de datos (ej: actuator) no compite por el pool
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String ruta = request.getRequestURI().substring(request.getContextPath().length());
+        // Las rutas terminadas en "/" excluyen todo lo que cuelga de ellas; el resto, solo esa ruta
+        for (String excluida : rutasExcluidas) {
+            if (excluida.endsWith("/") ? ruta.startsWith(excluida) : ruta.equals(excluida)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean adquirido;
+        try {
+            adquirido = permisos.tryAcquire(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            adquirido = false;
+        }
+        if (!adquirido) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        boolean asincrona = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new LiberarAlTerminar());
+                asincrona = true;
+            }
+        } finally {
+            if (!asincrona) {
+                permisos.release();
+            }
+        }
+    }
+
+    public int disponibles() {
+        return permisos.availablePermits();
+    }
+
+    // complete, error y timeout pueden llegar juntos: el permiso se devuelve una sola vez
+    private final class LiberarAlTerminar implements AsyncListener {
+        private final AtomicBoolean liberado = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void liberar() {
+            if (liberado.compareAndSet(false, true)) {
+                permisos.release();
+            }
+        }
+    }
+}
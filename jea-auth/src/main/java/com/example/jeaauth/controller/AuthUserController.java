@@ -2,13 +2,17 @@ package com.example.jeaauth.controller;
 
 import com.example.jeaauth.dto.AuthResponseDto;
 import com.example.jeaauth.dto.AuthUserDto;
+import com.example.jeaauth.dto.JwksDto;
 import com.example.jeaauth.dto.TokenDto;
 import com.example.jeaauth.entity.AuthUser;
 import com.example.jeaauth.service.AuthUserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.TimeUnit;
+
 @RestController
 @RequestMapping("/auth")
 public class AuthUserController {
@@ -32,6 +36,14 @@ public class AuthUserController {
         return ResponseEntity.ok(tokenDto);
     }
 
+    // Claves públicas para verificar los tokens localmente (el gateway no llama a /validate)
+    @GetMapping("/jwks")
+    public ResponseEntity<JwksDto> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(10, TimeUnit.MINUTES))
+                .body(authUserService.jwks());
+    }
+
     @PostMapping("/create")
     public ResponseEntity<AuthUser> create(@RequestBody AuthUserDto authUserDto) {
         AuthUser authUser = authUserService.save(authUserDto);
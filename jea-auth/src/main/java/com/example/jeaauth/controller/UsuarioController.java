@@ -1,5 +1,6 @@
 package com.example.jeaauth.controller;
 
+import com.example.jeaauth.dto.PaginaUsuariosDto;
 import com.example.jeaauth.dto.UsuarioDto;
 import com.example.jeaauth.dto.UsuarioListadoDto;
 import com.example.jeaauth.dto.UsuarioRolDto;
@@ -70,6 +71,24 @@ public class UsuarioController {
         return ResponseEntity.ok(usuarios);
     }
 
+    // Listado para la grilla de administración: ?pagina=0&tamanio=20&orden=apellidoPaterno&direccion=asc
+    // más los filtros opcionales estado, dni (prefijo) y nombre (en nombres o apellidos)
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaUsuariosDto> listarPagina(
+            @RequestParam(value = "pagina", required = false) Integer pagina,
+            @RequestParam(value = "tamanio", required = false) Integer tamanio,
+            @RequestParam(value = "orden", required = false) String orden,
+            @RequestParam(value = "direccion", required = false) String direccion,
+            @RequestParam(value = "estado", required = false) Boolean estado,
+            @RequestParam(value = "dni", required = false) String dni,
+            @RequestParam(value = "nombre", required = false) String nombre) {
+        try {
+            return ResponseEntity.ok(usuarioService.listarPagina(pagina, tamanio, orden, direccion, estado, dni, nombre));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
 
 
 }
\ No newline at end of file
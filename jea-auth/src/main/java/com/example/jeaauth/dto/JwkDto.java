@@ -0,0 +1,73 @@
+package com.example.jeaauth.dto;
+
+/**
+ * Clave pública RSA en formato JWK (RFC 7517), tal como la publica /auth/jwks.
+ */
+public class JwkDto {
+    private String kty;
+    private String use;
+    private String alg;
+    private String kid;
+    private String n;
+    private String e;
+
+    public JwkDto() {
+    }
+
+    public JwkDto(String kty, String use, String alg, String kid, String n, String e) {
+        this.kty = kty;
+        this.use = use;
+        this.alg = alg;
+        this.kid = kid;
+        this.n = n;
+        this.e = e;
+    }
+
+    public String getKty() {
+        return kty;
+    }
+
+    public void setKty(String kty) {
+        this.kty = kty;
+    }
+
+    public String getUse() {
+        return use;
+    }
+
+    public void setUse(String use) {
+        this.use = use;
+    }
+
+    public String getAlg() {
+        return alg;
+    }
+
+    public void setAlg(String alg) {
+        this.alg = alg;
+    }
+
+    public String getKid() {
+        return kid;
+    }
+
+    public void setKid(String kid) {
+        this.kid = kid;
+    }
+
+    public String getN() {
+        return n;
+    }
+
+    public void setN(String n) {
+        this.n = n;
+    }
+
+    public String getE() {
+        return e;
+    }
+
+    public void setE(String e) {
+        this.e = e;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.jeaauth.dto;
+
+import java.util.List;
+
+/**
+ * Conjunto de claves públicas con las que se pueden verificar los tokens emitidos.
+ */
+public class JwksDto {
+    private List<JwkDto> keys;
+
+    public JwksDto() {
+    }
+
+    public JwksDto(List<JwkDto> keys) {
+        this.keys = keys;
+    }
+
+    public List<JwkDto> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(List<JwkDto> keys) {
+        this.keys = keys;
+    }
+}
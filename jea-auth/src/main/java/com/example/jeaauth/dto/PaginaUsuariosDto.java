@@ -0,0 +1,62 @@
+package com.example.jeaauth.dto;
+
+import java.util.List;
+
+public class PaginaUsuariosDto {
+    private List<UsuarioListadoDto> contenido;
+    private int pagina;
+    private int tamanio;
+    private long totalElementos;
+    private int totalPaginas;
+
+    public PaginaUsuariosDto() {
+    }
+
+    public PaginaUsuariosDto(List<UsuarioListadoDto> contenido, int pagina, int tamanio, long totalElementos, int totalPaginas) {
+        this.contenido = contenido;
+        this.pagina = pagina;
+        this.tamanio = tamanio;
+        this.totalElementos = totalElementos;
+        this.totalPaginas = totalPaginas;
+    }
+
+    public List<UsuarioListadoDto> getContenido() {
+        return contenido;
+    }
+
+    public void setContenido(List<UsuarioListadoDto> contenido) {
+        this.contenido = contenido;
+    }
+
+    public int getPagina() {
+        return pagina;
+    }
+
+    public void setPagina(int pagina) {
+        this.pagina = pagina;
+    }
+
+    public int getTamanio() {
+        return tamanio;
+    }
+
+    public void setTamanio(int tamanio) {
+        this.tamanio = tamanio;
+    }
+
+    public long getTotalElementos() {
+        return totalElementos;
+    }
+
+    public void setTotalElementos(long totalElementos) {
+        this.totalElementos = totalElementos;
+    }
+
+    public int getTotalPaginas() {
+        return totalPaginas;
+    }
+
+    public void setTotalPaginas(int totalPaginas) {
+        this.totalPaginas = totalPaginas;
+    }
+}
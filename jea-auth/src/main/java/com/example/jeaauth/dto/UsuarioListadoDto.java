@@ -1,5 +1,6 @@
 package com.example.jeaauth.dto;
 
+import com.example.jeaauth.entity.Rol;
 import lombok.Data;
 
 @Data
@@ -28,6 +29,12 @@ public class UsuarioListadoDto {
         this.rol = rol;
     }
 
+    // Lo usa la consulta de UsuarioRepository, que trae el rol como enum o null si no tiene
+    public UsuarioListadoDto(Long id, String nombres, String apellidoPaterno, String apellidoMaterno, String dni, String direccion, String telefono, Boolean estado, String userName, Rol.RolNombre rol) {
+        this(id, nombres, apellidoPaterno, apellidoMaterno, dni, direccion, telefono, estado, userName,
+                rol == null ? "SIN ROL" : rol.name());
+    }
+
     public Long getId() {
         return id;
     }
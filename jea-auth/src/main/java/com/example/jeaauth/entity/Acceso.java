@@ -1,9 +1,12 @@
 package com.example.jeaauth.entity;
 
+import com.example.jeaauth.security.MatrizAccesosListener;
+
 import javax.persistence.*;
 
 @Entity
 @Table(name = "accesos")
+@EntityListeners(MatrizAccesosListener.class)
 public class Acceso {
 
     @Id
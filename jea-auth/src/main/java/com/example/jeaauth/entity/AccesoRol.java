@@ -1,11 +1,13 @@
 package com.example.jeaauth.entity;
 
+import com.example.jeaauth.security.MatrizAccesosListener;
 import lombok.Builder;
 
 import javax.persistence.*;
 
 @Entity
 @Table(name = "acceso_rol")
+@EntityListeners(MatrizAccesosListener.class)
 public class AccesoRol {
 
     @EmbeddedId
@@ -5,8 +5,12 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
 
 @Entity
+// El login busca por nombre de usuario
+@Table(indexes = @Index(name = "idx_auth_user_user_name", columnList = "user_name"))
 public class AuthUser {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,11 +1,13 @@
 package com.example.jeaauth.entity;
 
+import com.example.jeaauth.security.MatrizAccesosListener;
 import lombok.Builder;
 
 import javax.persistence.*;
 
 @Entity
 @Table(name = "roles")
+@EntityListeners(MatrizAccesosListener.class)
 public class Rol {
 
     public enum RolNombre {
@@ -6,6 +6,12 @@ import javax.persistence.*;
 import java.util.List;
 
 @Entity
+// Listado paginado: filtro por estado con el orden por defecto (apellidos, nombres) y búsqueda exacta
+// por DNI. El prefijo de DNI usa además el índice varchar_pattern_ops de IndicesPostgres
+@Table(indexes = {
+        @Index(name = "idx_usuario_estado_apellidos", columnList = "estado, apellido_paterno, apellido_materno, nombres"),
+        @Index(name = "idx_usuario_dni", columnList = "dni")
+})
 public class Usuario {
 
     @Id
@@ -3,7 +3,8 @@ package com.example.jeaauth.entity;
 import javax.persistence.*;
 
 @Entity
-@Table(name = "usuario_rol")
+// Roles de un usuario; la clave primaria empieza por id_rol y no sirve para buscar por usuario
+@Table(name = "usuario_rol", indexes = @Index(name = "idx_usuario_rol_usuario", columnList = "id_usuario"))
 public class UsuarioRol {
 
     @EmbeddedId
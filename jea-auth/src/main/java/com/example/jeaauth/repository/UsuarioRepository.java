@@ -1,9 +1,15 @@
 package com.example.jeaauth.repository;
 
 
+import com.example.jeaauth.dto.UsuarioListadoDto;
 import com.example.jeaauth.entity.AuthUser;
 import com.example.jeaauth.entity.Usuario;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,9 +17,46 @@ import java.util.Optional;
 
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+
+    // Filtros del listado; cada uno se ignora si llega null. dni es un patrón de prefijo ("123%") que
+    // resuelve el índice varchar_pattern_ops de IndicesPostgres; nombre es un patrón en minúsculas
+    // ("%ana%") que se busca en nombres y apellidos. En ambos % y _ van escapados con !
+    String FILTROS_LISTADO = "WHERE (:estado IS NULL OR u.estado = :estado) " +
+            "AND (:dni IS NULL OR u.dni LIKE :dni ESCAPE '!') " +
+            "AND (:nombre IS NULL OR LOWER(u.nombres) LIKE :nombre ESCAPE '!' " +
+            "     OR LOWER(u.apellidoPaterno) LIKE :nombre ESCAPE '!' " +
+            "     OR LOWER(u.apellidoMaterno) LIKE :nombre ESCAPE '!')";
+
+    // Una fila por usuario con su nombre de usuario y un rol (el de menor id si tiene varios), todo
+    // en una consulta. Para ordenar: las propiedades de Usuario van sin alias, userName es a.userName
+    // y el rol r.nombre
+    String LISTADO = "SELECT new com.example.jeaauth.dto.UsuarioListadoDto(u.id, u.nombres, u.apellidoPaterno, " +
+            "u.apellidoMaterno, u.dni, u.direccion, u.telefono, u.estado, a.userName, r.nombre) " +
+            "FROM Usuario u LEFT JOIN u.authUser a " +
+            "LEFT JOIN UsuarioRol ur ON ur.usuario = u " +
+            "     AND ur.id.rolId = (SELECT MIN(ur2.id.rolId) FROM UsuarioRol ur2 WHERE ur2.usuario = u) " +
+            "LEFT JOIN ur.rol r " +
+            FILTROS_LISTADO;
+
     Optional<Usuario> findByAuthUser(AuthUser authUser);
 
     List<Usuario> findByEstado(Boolean estado);
 
+    // Login: usuario y credenciales en una sola consulta
+    @Query("SELECT u FROM Usuario u JOIN FETCH u.authUser a WHERE a.userName = :userName")
+    Optional<Usuario> findConAuthUserByUserName(@Param("userName") String userName);
+
+    @Query(value = LISTADO, countQuery = "SELECT COUNT(u) FROM Usuario u " + FILTROS_LISTADO)
+    Page<UsuarioListadoDto> listarPagina(@Param("estado") Boolean estado,
+                                         @Param("dni") String dni,
+                                         @Param("nombre") String nombre,
+                                         Pageable pageable);
+
+    @Query(LISTADO)
+    List<UsuarioListadoDto> listarConRol(@Param("estado") Boolean estado,
+                                         @Param("dni") String dni,
+                                         @Param("nombre") String nombre,
+                                         Sort sort);
+
 
 }
\ No newline at end of file
@@ -2,9 +2,18 @@ package com.example.jeaauth.repository;
 
 import com.example.jeaauth.entity.*;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface UsuarioRolRepository extends JpaRepository<UsuarioRol, UsuarioRolPK> {
     List<UsuarioRol> findByUsuario(Usuario usuario);
+
+    // Solo los ids: los accesos de cada rol salen de MatrizAccesos
+    @Query("SELECT ur.id.rolId FROM UsuarioRol ur WHERE ur.id.usuarioId = :usuarioId")
+    List<Long> findRolIdsByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    @Query("SELECT ur.id.rolId FROM UsuarioRol ur JOIN ur.usuario u JOIN u.authUser a WHERE a.userName = :userName")
+    List<Long> findRolIdsByUserName(@Param("userName") String userName);
 }
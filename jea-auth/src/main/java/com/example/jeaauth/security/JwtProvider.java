@@ -1,60 +1,206 @@
 package com.example.jeaauth.security;
 
+import com.example.jeaauth.dto.JwkDto;
+import com.example.jeaauth.dto.JwksDto;
 import com.example.jeaauth.entity.AuthUser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
-
+/**
+ * Emite y valida los tokens firmados con RS256. La clave privada nunca sale de este servicio;
+ * la pública se publica en /auth/jwks para que el gateway verifique los tokens sin consultarnos.
+ *
+ * Las claves salen de un keystore PKCS12 (jwt.keystore.*), en base64 desde el config server
+ * (contenido) o desde un archivo (ruta). Todas las instancias tienen que usar el mismo: el gateway
+ * descarga /auth/jwks de cualquiera de ellas. Las claves de jwt.keystore.anteriores ya no firman pero
+ * se siguen publicando, para que los tokens emitidos antes de una rotación valgan hasta que expiren.
+ *
+ * Sin keystore el servicio no arranca. Solo con el perfil dev o test se genera un par efímero: sirve
+ * para una única instancia local, y cada reinicio invalida los tokens emitidos.
+ */
 @Component
 public class JwtProvider    {
-    @Value("${jwt.secret}")
-    private String secret;
+
+    private static final Logger log = LoggerFactory.getLogger(JwtProvider.class);
+
+    private static final long DURACION_MS = 3600000;
+
+    private static final ObjectMapper LECTOR = new ObjectMapper();
+
+    @Value("${jwt.keystore.contenido:}")
+    private String keystoreContenido;
+
+    @Value("${jwt.keystore.ruta:}")
+    private String keystoreRuta;
+
+    @Value("${jwt.keystore.clave:}")
+    private String keystoreClave;
+
+    @Value("${jwt.keystore.alias:jwt}")
+    private String alias;
+
+    @Value("${jwt.keystore.anteriores:}")
+    private List<String> aliasAnteriores;
+
+    @Autowired
+    private Environment environment;
+
+    private PrivateKey clavePrivada;
+    private String kid;
+
+    // kid -> clave pública, la actual primero
+    private Map<String, RSAPublicKey> clavesPublicas;
 
 
     @PostConstruct
-    protected void init() {
-        secret = Base64.getEncoder().encodeToString(secret.getBytes());
+    protected void init() throws GeneralSecurityException, IOException {
+        Map<String, RSAPublicKey> claves = new LinkedHashMap<>();
+        boolean sinKeystore = (keystoreContenido == null || keystoreContenido.isBlank())
+                && (keystoreRuta == null || keystoreRuta.isBlank());
+        if (sinKeystore && !environment.acceptsProfiles(Profiles.of("dev", "test"))) {
+            // Cada instancia tendría su propia clave: los tokens de una serían inválidos en las demás
+            throw new IllegalStateException("Falta el keystore de JWT (jwt.keystore.contenido o jwt.keystore.ruta); "
+                    + "la clave efímera solo se permite con el perfil dev o test");
+        }
+        if (sinKeystore) {
+            log.warn("Sin keystore de JWT: se genera una clave RSA efímera; los tokens no sobreviven a un reinicio");
+            KeyPairGenerator generador = KeyPairGenerator.getInstance("RSA");
+            generador.initialize(2048);
+            KeyPair par = generador.generateKeyPair();
+            clavePrivada = par.getPrivate();
+            kid = huella((RSAPublicKey) par.getPublic());
+            claves.put(kid, (RSAPublicKey) par.getPublic());
+        } else {
+            char[] clave = keystoreClave.toCharArray();
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            try (InputStream entrada = keystoreContenido == null || keystoreContenido.isBlank()
+                    ? Files.newInputStream(Paths.get(keystoreRuta))
+                    : new ByteArrayInputStream(Base64.getMimeDecoder().decode(keystoreContenido))) {
+                keyStore.load(entrada, clave);
+            }
+            Key privada = keyStore.getKey(alias, clave);
+            if (!(privada instanceof PrivateKey)) {
+                throw new IllegalStateException("El keystore no tiene una clave privada con alias " + alias);
+            }
+            clavePrivada = (PrivateKey) privada;
+            RSAPublicKey publica = (RSAPublicKey) keyStore.getCertificate(alias).getPublicKey();
+            kid = huella(publica);
+            claves.put(kid, publica);
+            for (String anterior : aliasAnteriores == null ? List.<String>of() : aliasAnteriores) {
+                if (!anterior.isBlank() && keyStore.getCertificate(anterior) != null) {
+                    RSAPublicKey publicaAnterior = (RSAPublicKey) keyStore.getCertificate(anterior).getPublicKey();
+                    claves.putIfAbsent(huella(publicaAnterior), publicaAnterior);
+                }
+            }
+        }
+        clavesPublicas = claves;
     }
 
 
     public String createToken(AuthUser authUser) {
-        Map<String, Object> claims = new HashMap<>();
-        claims = Jwts.claims().setSubject(authUser.getUserName());
+        Claims claims = Jwts.claims().setSubject(authUser.getUserName());
         claims.put("id", authUser.getId());
         Date now = new Date();
-        Date exp = new Date(now.getTime() + 3600000);
+        Date exp = new Date(now.getTime() + DURACION_MS);
         return Jwts.builder()
+                .setHeaderParam("kid", kid)
                 .setClaims(claims)
                 .setIssuedAt(now)
                 .setExpiration(exp)
-                .signWith(SignatureAlgorithm.HS256, secret)
+                .signWith(SignatureAlgorithm.RS256, clavePrivada)
                 .compact();
     }
 
 
     public boolean validate(String token) {
+        return parse(token) != null;
+    }
+
+    public String getUserNameFromToken(String token){
+        Jws<Claims> jws = parse(token);
+        return jws == null ? "bad token" : jws.getBody().getSubject();
+    }
+
+    public JwksDto jwks() {
+        List<JwkDto> keys = new ArrayList<>(clavesPublicas.size());
+        clavesPublicas.forEach((id, clave) -> keys.add(new JwkDto("RSA", "sig", SignatureAlgorithm.RS256.getValue(),
+                id, base64Url(clave.getModulus()), base64Url(clave.getPublicExponent()))));
+        return new JwksDto(keys);
+    }
+
+    // Solo RS256 y solo con una clave publicada: un token con alg HS256 o none no se acepta nunca
+    private Jws<Claims> parse(String token) {
         try {
-            Jwts.parser().setSigningKey(secret).parseClaimsJws(token);
+            RSAPublicKey clave = clavesPublicas.get(kidDe(token));
+            if (clave == null) {
+                return null;
+            }
+            Jws<Claims> jws = Jwts.parser().setSigningKey(clave).parseClaimsJws(token);
+            return SignatureAlgorithm.RS256.getValue().equals(jws.getHeader().getAlgorithm()) ? jws : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
 
-            return true;
-        }catch (Exception e){
-            return false;
+    // El kid se lee del encabezado antes de verificar, para elegir la clave; sin kid se usa la actual
+    private String kidDe(String token) throws IOException {
+        int punto = token.indexOf('.');
+        if (punto < 0) {
+            return null;
         }
+        JsonNode encabezado = LECTOR.readTree(Base64.getUrlDecoder().decode(token.substring(0, punto)));
+        return encabezado.hasNonNull("kid") ? encabezado.get("kid").asText() : kid;
     }
 
-    public String getUserNameFromToken(String token){
-        try {
-            return Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody().getSubject();
-        }catch (Exception e) {
-            return "bad token";
+    // Huella RFC 7638 de la clave: el kid no cambia mientras la clave sea la misma
+    private static String huella(RSAPublicKey clave) throws GeneralSecurityException {
+        String canonica = "{\"e\":\"" + base64Url(clave.getPublicExponent())
+                + "\",\"kty\":\"RSA\",\"n\":\"" + base64Url(clave.getModulus()) + "\"}";
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(canonica.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    // Entero sin signo en big-endian, sin el byte de signo que agrega BigInteger
+    private static String base64Url(BigInteger valor) {
+        byte[] bytes = valor.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
         }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 }
@@ -0,0 +1,205 @@
+package com.example.jeaauth.security;
+
+import com.example.jeaauth.dto.AccesoDto;
+import com.example.jeaauth.entity.Acceso;
+import com.example.jeaauth.entity.AccesoRol;
+import com.example.jeaauth.repository.AccesoRolRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Accesos de cada rol en memoria. Roles, accesos y acceso_rol casi no cambian y se consultaban en
+ * cada login y cada menú; aquí se leen una vez y el menú de un usuario sale de memoria, sin tocar la base.
+ *
+ * La matriz es inmutable: cada recarga arma una nueva y la reemplaza de una vez, así que una lectura
+ * nunca ve una mezcla de la vieja y la nueva. Se recarga al confirmarse una transacción que modificó
+ * Rol, Acceso o AccesoRol (MatrizAccesosListener) y cada accesos.matriz.recarga-ms, por los cambios
+ * hechos directamente en la base.
+ */
+@Component
+public class MatrizAccesos {
+
+    private static final Logger log = LoggerFactory.getLogger(MatrizAccesos.class);
+
+    // Mismo orden que el menú: por orden, los que no tienen orden al final, y a igual orden por id
+    private static final Comparator<Acceso> POR_ORDEN = Comparator
+            .comparing(Acceso::getOrden, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Acceso::getIdAcceso);
+
+    private static final Comparator<AccesoDto> MENU_POR_ORDEN = Comparator
+            .comparing(AccesoDto::getOrden, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    @Autowired
+    private AccesoRolRepository accesoRolRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate lectura;
+
+    private volatile Instantanea actual = Instantanea.VACIA;
+
+
+    @PostConstruct
+    protected void init() {
+        // Transacción propia: la recarga también corre después de confirmar la transacción que hizo el cambio
+        lectura = new TransactionTemplate(transactionManager);
+        lectura.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        lectura.setReadOnly(true);
+        recargar();
+    }
+
+    /**
+     * Lee roles y accesos de la base y reemplaza la matriz. Las recargas no se solapan, así que la
+     * última en terminar es siempre la que leyó después.
+     */
+    @Scheduled(initialDelayString = "${accesos.matriz.recarga-ms:300000}",
+            fixedDelayString = "${accesos.matriz.recarga-ms:300000}")
+    public synchronized void recargar() {
+        actual = lectura.execute(estado -> Instantanea.de(accesoRolRepository.findAllConRolYAcceso()));
+        log.debug("Matriz de accesos recargada: {} roles", actual.roles.length);
+    }
+
+    /**
+     * Pide una recarga. Dentro de una transacción espera a que se confirme y recarga una sola vez
+     * aunque la transacción haya cambiado muchas filas; si se revierte no recarga.
+     */
+    public void marcarCambio() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recargar();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(MatrizAccesos.this);
+                if (status == STATUS_COMMITTED) {
+                    recargar();
+                }
+            }
+        });
+    }
+
+    /**
+     * Accesos del rol ordenados por orden; lista vacía si el rol no existe o no tiene accesos.
+     * Las entidades son copias desconectadas compartidas entre peticiones: no se deben modificar.
+     */
+    public List<Acceso> accesosDeRol(long rolId) {
+        AccesosDeRol accesos = actual.buscar(rolId);
+        return accesos == null ? Collections.emptyList() : accesos.entidades;
+    }
+
+    /**
+     * Menú de un usuario con esos roles: los accesos de todos, sin repetir, ordenados por orden.
+     */
+    public List<AccesoDto> menuDeRoles(Collection<Long> rolIds) {
+        Instantanea instantanea = actual;
+        if (rolIds.size() == 1) {
+            // El caso común: un solo rol, su menú ya está armado
+            AccesosDeRol accesos = instantanea.buscar(rolIds.iterator().next());
+            return accesos == null ? Collections.emptyList() : accesos.menu;
+        }
+
+        Set<Long> vistos = new HashSet<>();
+        List<AccesoDto> menu = new ArrayList<>();
+        for (Long rolId : rolIds) {
+            AccesosDeRol accesos = instantanea.buscar(rolId);
+            if (accesos == null) {
+                continue;
+            }
+            for (int i = 0; i < accesos.ids.length; i++) {
+                if (vistos.add(accesos.ids[i])) {
+                    menu.add(accesos.menu.get(i));
+                }
+            }
+        }
+        menu.sort(MENU_POR_ORDEN);
+        return menu;
+    }
+
+    private static final class Instantanea {
+
+        private static final Instantanea VACIA = new Instantanea(new long[0], new AccesosDeRol[0]);
+
+        // Ids de rol ordenados; accesosPorRol[i] corresponde a roles[i]
+        private final long[] roles;
+        private final AccesosDeRol[] accesosPorRol;
+
+        private Instantanea(long[] roles, AccesosDeRol[] accesosPorRol) {
+            this.roles = roles;
+            this.accesosPorRol = accesosPorRol;
+        }
+
+        private static Instantanea de(List<AccesoRol> filas) {
+            Map<Long, List<Acceso>> porRol = new TreeMap<>();
+            for (AccesoRol fila : filas) {
+                Acceso acceso = fila.getAcceso();
+                porRol.computeIfAbsent(fila.getRol().getIdRol(), k -> new ArrayList<>())
+                        .add(new Acceso(acceso.getIdAcceso(), acceso.getNombre(), acceso.getUrl(),
+                                acceso.getIcono(), acceso.getOrden()));
+            }
+
+            long[] roles = new long[porRol.size()];
+            AccesosDeRol[] accesosPorRol = new AccesosDeRol[porRol.size()];
+            int i = 0;
+            for (Map.Entry<Long, List<Acceso>> entrada : porRol.entrySet()) {
+                roles[i] = entrada.getKey();
+                accesosPorRol[i] = new AccesosDeRol(entrada.getValue());
+                i++;
+            }
+            return new Instantanea(roles, accesosPorRol);
+        }
+
+        private AccesosDeRol buscar(Long rolId) {
+            return rolId == null ? null : buscar(rolId.longValue());
+        }
+
+        private AccesosDeRol buscar(long rolId) {
+            int posicion = Arrays.binarySearch(roles, rolId);
+            return posicion < 0 ? null : accesosPorRol[posicion];
+        }
+    }
+
+    private static final class AccesosDeRol {
+        private final long[] ids;
+        private final List<Acceso> entidades;
+        private final List<AccesoDto> menu;
+
+        private AccesosDeRol(List<Acceso> accesos) {
+            accesos.sort(POR_ORDEN);
+            ids = new long[accesos.size()];
+            List<AccesoDto> dtos = new ArrayList<>(accesos.size());
+            for (int i = 0; i < accesos.size(); i++) {
+                Acceso acceso = accesos.get(i);
+                ids[i] = acceso.getIdAcceso();
+                dtos.add(new AccesoDto(acceso.getNombre(), acceso.getUrl(), acceso.getIcono(), acceso.getOrden()));
+            }
+            entidades = Collections.unmodifiableList(accesos);
+            menu = Collections.unmodifiableList(dtos);
+        }
+    }
+}
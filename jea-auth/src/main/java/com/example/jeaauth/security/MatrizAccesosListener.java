@@ -0,0 +1,30 @@
+package com.example.jeaauth.security;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Avisa a MatrizAccesos cuando se guarda o se borra un Rol, un Acceso o un AccesoRol. Lo instancia
+ * Hibernate a través de Spring; la matriz se pide recién al usarla porque depende de los repositorios,
+ * que todavía no existen cuando se arma el EntityManagerFactory. Las actualizaciones masivas con
+ * JPQL no pasan por aquí: esas se ven en la recarga periódica.
+ */
+public class MatrizAccesosListener {
+
+    @Autowired
+    private ObjectProvider<MatrizAccesos> matrizAccesos;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void alCambiar(Object entidad) {
+        MatrizAccesos matriz = matrizAccesos.getIfAvailable();
+        if (matriz != null) {
+            matriz.marcarCambio();
+        }
+    }
+}
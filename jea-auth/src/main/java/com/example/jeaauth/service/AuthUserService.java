@@ -3,6 +3,7 @@ package com.example.jeaauth.service;
 
 import com.example.jeaauth.dto.AuthResponseDto;
 import com.example.jeaauth.dto.AuthUserDto;
+import com.example.jeaauth.dto.JwksDto;
 import com.example.jeaauth.dto.TokenDto;
 import com.example.jeaauth.entity.AuthUser;
 
@@ -12,4 +13,6 @@ public interface AuthUserService {
     public AuthResponseDto login(AuthUserDto authUserDto);
 
     public TokenDto validate(String token);
+
+    public JwksDto jwks();
 }
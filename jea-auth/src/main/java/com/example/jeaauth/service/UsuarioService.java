@@ -1,5 +1,6 @@
 package com.example.jeaauth.service;
 
+import com.example.jeaauth.dto.PaginaUsuariosDto;
 import com.example.jeaauth.dto.UsuarioDto;
 import com.example.jeaauth.dto.UsuarioListadoDto;
 import com.example.jeaauth.dto.UsuarioRolDto;
@@ -20,6 +21,9 @@ public interface UsuarioService {
 
     List<UsuarioListadoDto> listarTodosConRol();
 
+    PaginaUsuariosDto listarPagina(Integer pagina, Integer tamanio, String orden, String direccion,
+                                   Boolean estado, String dni, String nombre);
+
 
 
 }
\ No newline at end of file
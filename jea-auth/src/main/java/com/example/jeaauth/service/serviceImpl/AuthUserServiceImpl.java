@@ -3,23 +3,21 @@ package com.example.jeaauth.service.serviceImpl;
 import com.example.jeaauth.dto.AccesoDto;
 import com.example.jeaauth.dto.AuthResponseDto;
 import com.example.jeaauth.dto.AuthUserDto;
+import com.example.jeaauth.dto.JwksDto;
 import com.example.jeaauth.dto.TokenDto;
 import com.example.jeaauth.entity.*;
-import com.example.jeaauth.repository.AccesoRolRepository;
 import com.example.jeaauth.repository.AuthUserRepository;
 import com.example.jeaauth.repository.UsuarioRepository;
 import com.example.jeaauth.repository.UsuarioRolRepository;
 import com.example.jeaauth.security.JwtProvider;
+import com.example.jeaauth.security.MatrizAccesos;
 import com.example.jeaauth.service.AuthUserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 public class AuthUserServiceImpl implements AuthUserService {
@@ -32,7 +30,7 @@ public class AuthUserServiceImpl implements AuthUserService {
     @Autowired
     private UsuarioRolRepository usuarioRolRepository;
     @Autowired
-    private AccesoRolRepository accesoRolRepository;
+    private MatrizAccesos matrizAccesos;
     @Autowired
     private UsuarioRepository usuarioRepository;
 
@@ -55,25 +53,19 @@ public class AuthUserServiceImpl implements AuthUserService {
 
     @Override
     public AuthResponseDto login(AuthUserDto authUserDto) {
-        Optional<AuthUser> userOpt = authUserRepository.findByUserName(authUserDto.getUserName());
-        if (!userOpt.isPresent()) {
+        // Usuario y credenciales juntos: si el AuthUser no tiene Usuario asociado el login falla igual
+        Optional<Usuario> usuarioOpt = usuarioRepository.findConAuthUserByUserName(authUserDto.getUserName());
+        if (!usuarioOpt.isPresent()) {
             return null;
         }
 
-        AuthUser user = userOpt.get();
+        Usuario usuario = usuarioOpt.get();
+        AuthUser user = usuario.getAuthUser();
 
         if (!passwordEncoder.matches(authUserDto.getPassword(), user.getPassword())) {
             return null;
         }
 
-        // Buscar Usuario asociado al AuthUser
-        Optional<Usuario> usuarioOpt = usuarioRepository.findByAuthUser(user);
-        if (!usuarioOpt.isPresent()) {
-            return null;
-        }
-
-        Usuario usuario = usuarioOpt.get();
-
         // 🔴 Aquí va la validación del estado
         if (usuario.getEstado() != null && !usuario.getEstado()) {
             // Usuario está inactivo
@@ -83,22 +75,8 @@ public class AuthUserServiceImpl implements AuthUserService {
         // Generar token
         String token = jwtProvider.createToken(user);
 
-        // Obtener roles del usuario
-        List<UsuarioRol> usuarioRoles = usuarioRolRepository.findByUsuario(usuario);
-
-        // Obtener accesos por cada rol
-        Set<Acceso> accesos = new HashSet<>();
-        for (UsuarioRol ur : usuarioRoles) {
-            List<AccesoRol> accesoRoles = accesoRolRepository.findByRol(ur.getRol());
-            for (AccesoRol ar : accesoRoles) {
-                accesos.add(ar.getAcceso());
-            }
-        }
-
-        // Convertir a AccesoDto
-        List<AccesoDto> accesoDtos = accesos.stream()
-                .map(a -> new AccesoDto(a.getNombre(), a.getUrl(), a.getIcono(), a.getOrden()))
-                .collect(Collectors.toList());
+        // Solo los ids de sus roles vienen de la base; los accesos de cada rol, de la matriz en memoria
+        List<AccesoDto> accesoDtos = matrizAccesos.menuDeRoles(usuarioRolRepository.findRolIdsByUsuarioId(usuario.getId()));
 
         return new AuthResponseDto(token, user.getUserName(), accesoDtos);
     }
@@ -115,4 +93,9 @@ public class AuthUserServiceImpl implements AuthUserService {
             return null;
         return new TokenDto(token);
     }
-}
\ No newline at end of file
+
+    @Override
+    public JwksDto jwks() {
+        return jwtProvider.jwks();
+    }
+}
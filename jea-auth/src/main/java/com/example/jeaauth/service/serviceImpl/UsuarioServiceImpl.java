@@ -1,22 +1,40 @@
 package com.example.jeaauth.service.serviceImpl;
 
 import com.example.jeaauth.dto.AccesoDto;
+import com.example.jeaauth.dto.PaginaUsuariosDto;
 import com.example.jeaauth.dto.UsuarioDto;
 import com.example.jeaauth.dto.UsuarioListadoDto;
 import com.example.jeaauth.dto.UsuarioRolDto;
 import com.example.jeaauth.entity.*;
 import com.example.jeaauth.repository.*;
+import com.example.jeaauth.security.MatrizAccesos;
 import com.example.jeaauth.service.UsuarioService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class UsuarioServiceImpl implements UsuarioService {
 
+    private static final int TAMANIO_POR_DEFECTO = 20;
+    private static final int TAMANIO_MAXIMO = 100;
+
+    // Campos por los que se puede ordenar el listado y su expresión en UsuarioRepository.LISTADO
+    private static final Map<String, String> ORDENES = Map.of(
+            "id", "id",
+            "nombres", "nombres",
+            "apellidoPaterno", "apellidoPaterno",
+            "apellidoMaterno", "apellidoMaterno",
+            "dni", "dni",
+            "estado", "estado",
+            "userName", "a.userName",
+            "rol", "r.nombre");
+
     @Autowired
     private UsuarioRepository usuarioRepository;
 
@@ -30,7 +48,7 @@ public class UsuarioServiceImpl implements UsuarioService {
     private UsuarioRolRepository usuarioRolRepository;
 
     @Autowired
-    private AccesoRolRepository accesoRolRepository;
+    private MatrizAccesos matrizAccesos;
 
     @Autowired
     private RolRepository rolRepository;
@@ -88,28 +106,8 @@ public class UsuarioServiceImpl implements UsuarioService {
 
 
     public List<AccesoDto> obtenerAccesosPorUsuario(Long usuarioId) {
-        Optional<Usuario> usuarioOpt = usuarioRepository.findById(usuarioId);
-        if (!usuarioOpt.isPresent()) {
-            return Collections.emptyList();
-        }
-        Usuario usuario = usuarioOpt.get();
-
-        // Obtener roles del usuario
-        List<UsuarioRol> usuarioRoles = usuarioRolRepository.findByUsuario(usuario);
-
-        // Obtener accesos desde roles
-        Set<Acceso> accesosSet = new HashSet<>();
-        for (UsuarioRol ur : usuarioRoles) {
-            List<AccesoRol> accesoRoles = accesoRolRepository.findByRol(ur.getRol());
-            for (AccesoRol ar : accesoRoles) {
-                accesosSet.add(ar.getAcceso());
-            }
-        }
-
-        // Convertir a DTO
-        return accesosSet.stream()
-                .map(a -> new AccesoDto(a.getNombre(), a.getUrl(), a.getIcono(), a.getOrden()))
-                .collect(Collectors.toList());
+        // Un usuario inexistente no tiene roles: el menú sale vacío
+        return matrizAccesos.menuDeRoles(usuarioRolRepository.findRolIdsByUsuarioId(usuarioId));
     }
 
     @Override
@@ -139,32 +137,7 @@ public class UsuarioServiceImpl implements UsuarioService {
 
     @Override
     public List<UsuarioListadoDto> listarUsuariosPorEstadoConRol(boolean estado) {
-        List<Usuario> usuarios = usuarioRepository.findByEstado(estado);
-        List<UsuarioListadoDto> resultado = new ArrayList<>();
-
-        for (Usuario usuario : usuarios) {
-            String userName = usuario.getAuthUser() != null ? usuario.getAuthUser().getUserName() : null;
-
-            List<UsuarioRol> roles = usuarioRolRepository.findByUsuario(usuario);
-            String nombreRol = roles.isEmpty() ? "SIN ROL" : roles.get(0).getRol().getNombre().name(); // asumes un rol
-
-            UsuarioListadoDto dto = new UsuarioListadoDto(
-                    usuario.getId(),
-                    usuario.getNombres(),
-                    usuario.getApellidoPaterno(),
-                    usuario.getApellidoMaterno(),
-                    usuario.getDni(),
-                    usuario.getDireccion(),
-                    usuario.getTelefono(),
-                    usuario.getEstado(),
-                    userName,
-                    nombreRol
-            );
-
-            resultado.add(dto);
-        }
-
-        return resultado;
+        return usuarioRepository.listarConRol(estado, null, null, Sort.by("id"));
     }
 
     @Override
@@ -231,41 +204,48 @@ public class UsuarioServiceImpl implements UsuarioService {
 
     @Override
     public List<UsuarioListadoDto> listarTodosConRol() {
-        List<Usuario> usuarios = usuarioRepository.findAll();
-        List<UsuarioListadoDto> resultado = new ArrayList<>();
-
-        for (Usuario usuario : usuarios) {
-
-            String userName = usuario.getAuthUser() != null
-                    ? usuario.getAuthUser().getUserName()
-                    : null;
-
-            // Obtener roles del usuario
-            List<UsuarioRol> roles = usuarioRolRepository.findByUsuario(usuario);
-
-            String nombreRol = roles.isEmpty()
-                    ? "SIN ROL"
-                    : roles.get(0).getRol().getNombre().name();
-
-            UsuarioListadoDto dto = new UsuarioListadoDto(
-                    usuario.getId(),
-                    usuario.getNombres(),
-                    usuario.getApellidoPaterno(),
-                    usuario.getApellidoMaterno(),
-                    usuario.getDni(),
-                    usuario.getDireccion(),
-                    usuario.getTelefono(),
-                    usuario.getEstado(),
-                    userName,
-                    nombreRol
-            );
-
-            resultado.add(dto);
-        }
+        return usuarioRepository.listarConRol(null, null, null, Sort.by("id"));
+    }
 
-        return resultado;
+    @Override
+    public PaginaUsuariosDto listarPagina(Integer pagina, Integer tamanio, String orden, String direccion,
+                                          Boolean estado, String dni, String nombre) {
+        if (pagina != null && pagina < 0) {
+            throw new IllegalArgumentException("La página empieza en 0");
+        }
+        int numero = pagina == null ? 0 : pagina;
+        int porPagina = (tamanio == null || tamanio <= 0) ? TAMANIO_POR_DEFECTO : Math.min(tamanio, TAMANIO_MAXIMO);
+
+        String patronDni = (dni == null || dni.isBlank()) ? null : escaparLike(dni.trim()) + "%";
+        String patronNombre = (nombre == null || nombre.isBlank())
+                ? null
+                : "%" + escaparLike(nombre.trim().toLowerCase(Locale.ROOT)) + "%";
+
+        Page<UsuarioListadoDto> resultado = usuarioRepository.listarPagina(estado, patronDni, patronNombre,
+                PageRequest.of(numero, porPagina, ordenListado(orden, direccion)));
+        return new PaginaUsuariosDto(resultado.getContent(), resultado.getNumber(), resultado.getSize(),
+                resultado.getTotalElements(), resultado.getTotalPages());
     }
 
+    // Un "%" o "_" escrito por el usuario se busca literal (ESCAPE '!' en UsuarioRepository)
+    private static String escaparLike(String texto) {
+        return texto.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
 
+    // Por defecto apellidos y nombres; siempre se desempata por id para que las páginas no se solapen
+    private static Sort ordenListado(String orden, String direccion) {
+        Sort.Direction sentido = (direccion == null || direccion.isBlank())
+                ? Sort.Direction.ASC
+                : Sort.Direction.fromString(direccion);
+        if (orden == null || orden.isBlank()) {
+            return Sort.by(sentido, "apellidoPaterno", "apellidoMaterno", "nombres").and(Sort.by("id"));
+        }
+        String campo = ORDENES.get(orden);
+        if (campo == null) {
+            throw new IllegalArgumentException("No se puede ordenar por " + orden);
+        }
+        Sort sort = Sort.by(sentido, campo);
+        return "id".equals(campo) ? sort : sort.and(Sort.by("id"));
+    }
 
 }
\ No newline at end of file
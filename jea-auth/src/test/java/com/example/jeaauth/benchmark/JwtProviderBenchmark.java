@@ -0,0 +1,59 @@
+package com.example.jeaauth.benchmark;
+
+import com.example.jeaauth.entity.AuthUser;
+import com.example.jeaauth.security.JwtProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emitir y validar un token, sin Spring: es lo que paga cada login y cada /auth/validate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtProviderBenchmark {
+
+    private JwtProvider jwtProvider;
+    private AuthUser authUser;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        jwtProvider = new JwtProvider();
+        // Sin keystore y con el perfil test: genera una clave RSA efímera
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("test");
+        ReflectionTestUtils.setField(jwtProvider, "environment", environment);
+        ReflectionTestUtils.setField(jwtProvider, "keystoreContenido", "");
+        ReflectionTestUtils.setField(jwtProvider, "keystoreRuta", "");
+        ReflectionTestUtils.invokeMethod(jwtProvider, "init");
+
+        authUser = new AuthUser(1, "admin", null);
+        token = jwtProvider.createToken(authUser);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return jwtProvider.createToken(authUser);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return jwtProvider.validate(token);
+    }
+}
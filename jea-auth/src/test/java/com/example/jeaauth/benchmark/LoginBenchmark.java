@@ -0,0 +1,164 @@
+package com.example.jeaauth.benchmark;
+
+import com.example.jeaauth.JeaAuthApplication;
+import com.example.jeaauth.dto.AuthResponseDto;
+import com.example.jeaauth.dto.AuthUserDto;
+import com.example.jeaauth.entity.Acceso;
+import com.example.jeaauth.entity.AccesoRol;
+import com.example.jeaauth.entity.AccesoRolPK;
+import com.example.jeaauth.entity.AuthUser;
+import com.example.jeaauth.entity.Rol;
+import com.example.jeaauth.entity.Usuario;
+import com.example.jeaauth.entity.UsuarioRol;
+import com.example.jeaauth.entity.UsuarioRolPK;
+import com.example.jeaauth.repository.AccesoRepository;
+import com.example.jeaauth.repository.AccesoRolRepository;
+import com.example.jeaauth.repository.RolRepository;
+import com.example.jeaauth.repository.UsuarioRepository;
+import com.example.jeaauth.repository.UsuarioRolRepository;
+import com.example.jeaauth.service.AuthUserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AuthUserServiceImpl.login contra H2 en memoria: usuario, estado, token, roles y accesos.
+ *
+ * Con encoder=noop se mide solo la resolución de roles y accesos; con bcrypt, el login completo,
+ * donde el hash de la clave suele dominar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final String CLAVE = "clave-de-prueba";
+    private static final int ACCESOS = 15;
+
+    @Param({"1000"})
+    public int usuarios;
+
+    @Param({"noop", "bcrypt"})
+    public String encoder;
+
+    private ConfigurableApplicationContext contexto;
+    private AuthUserService authUserService;
+
+    @State(Scope.Thread)
+    public static class Azar {
+        private final SplittableRandom azar = new SplittableRandom(42);
+    }
+
+    // Se registra solo con encoder=noop; no es @Configuration para que el escaneo no la encuentre
+    static class SinBcrypt {
+        @Bean
+        @Primary
+        @SuppressWarnings("deprecation")
+        PasswordEncoder passwordEncoderSinCosto() {
+            return NoOpPasswordEncoder.getInstance();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(JeaAuthApplication.class)
+                .profiles("test")
+                .properties("server.port=0",
+                        "spring.cloud.config.enabled=false",
+                        "spring.cloud.bootstrap.enabled=false",
+                        "logging.level.root=WARN");
+        if ("noop".equals(encoder)) {
+            builder.sources(SinBcrypt.class);
+        }
+        contexto = builder.run();
+        authUserService = contexto.getBean(AuthUserService.class);
+        sembrar(contexto.getBean(PasswordEncoder.class).encode(CLAVE));
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public AuthResponseDto login(Azar azar) {
+        return authUserService.login(new AuthUserDto("usuario" + azar.azar.nextInt(usuarios), CLAVE));
+    }
+
+    // Tres roles que comparten parte del menú; cada usuario tiene uno o dos roles
+    private void sembrar(String claveCodificada) {
+        List<Rol> roles = contexto.getBean(RolRepository.class).saveAll(List.of(
+                new Rol(null, Rol.RolNombre.ADMIN, "Administrador"),
+                new Rol(null, Rol.RolNombre.BIBLIOTECARIO, "Bibliotecario"),
+                new Rol(null, Rol.RolNombre.LECTOR, "Lector")));
+
+        List<Acceso> accesos = new ArrayList<>();
+        for (long i = 1; i <= ACCESOS; i++) {
+            accesos.add(new Acceso(null, "Opción " + i, "/opcion-" + i, "icono-" + i, i));
+        }
+        accesos = contexto.getBean(AccesoRepository.class).saveAll(accesos);
+
+        List<AccesoRol> accesosRol = new ArrayList<>();
+        for (int r = 0; r < roles.size(); r++) {
+            // ADMIN ve todo, BIBLIOTECARIO dos tercios y LECTOR un tercio
+            int cantidad = ACCESOS * (roles.size() - r) / roles.size();
+            for (int a = 0; a < cantidad; a++) {
+                Rol rol = roles.get(r);
+                Acceso acceso = accesos.get(a);
+                accesosRol.add(new AccesoRol(new AccesoRolPK(rol.getIdRol(), acceso.getIdAcceso()), rol, acceso));
+            }
+        }
+        contexto.getBean(AccesoRolRepository.class).saveAll(accesosRol);
+
+        SplittableRandom azar = new SplittableRandom(1);
+        List<Usuario> lista = new ArrayList<>(usuarios);
+        for (int i = 0; i < usuarios; i++) {
+            Usuario usuario = new Usuario();
+            usuario.setNombres("Nombre " + i);
+            usuario.setApellidoPaterno("Paterno " + i);
+            usuario.setApellidoMaterno("Materno " + i);
+            usuario.setDni(String.format("%08d", i));
+            usuario.setEstado(true);
+            usuario.setAuthUser(new AuthUser(0, "usuario" + i, claveCodificada));
+            lista.add(usuario);
+        }
+        lista = contexto.getBean(UsuarioRepository.class).saveAll(lista);
+
+        List<UsuarioRol> usuariosRol = new ArrayList<>();
+        for (Usuario usuario : lista) {
+            Rol principal = roles.get(azar.nextInt(roles.size()));
+            usuariosRol.add(new UsuarioRol(new UsuarioRolPK(usuario.getId(), principal.getIdRol()), usuario, principal));
+            if (azar.nextInt(4) == 0) {
+                Rol lector = roles.get(roles.size() - 1);
+                if (lector != principal) {
+                    usuariosRol.add(new UsuarioRol(new UsuarioRolPK(usuario.getId(), lector.getIdRol()), usuario, lector));
+                }
+            }
+        }
+        contexto.getBean(UsuarioRolRepository.class).saveAll(usuariosRol);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.jeaauth.service;
+
+import com.example.jeaauth.dto.PaginaUsuariosDto;
+import com.example.jeaauth.dto.UsuarioListadoDto;
+import com.example.jeaauth.entity.AuthUser;
+import com.example.jeaauth.entity.Rol;
+import com.example.jeaauth.entity.Usuario;
+import com.example.jeaauth.entity.UsuarioRol;
+import com.example.jeaauth.entity.UsuarioRolPK;
+import com.example.jeaauth.repository.RolRepository;
+import com.example.jeaauth.repository.UsuarioRepository;
+import com.example.jeaauth.repository.UsuarioRolRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Listado paginado de usuarios: filtros, orden permitido y conteo total con usuarios de varios roles.
+ */
+@SpringBootTest(properties = "spring.cloud.bootstrap.enabled=false")
+@ActiveProfiles("test")
+class UsuarioListadoTest {
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private UsuarioRolRepository usuarioRolRepository;
+
+    @Autowired
+    private RolRepository rolRepository;
+
+    @BeforeEach
+    void sembrar() {
+        usuarioRolRepository.deleteAll();
+        usuarioRepository.deleteAll();
+        rolRepository.deleteAll();
+
+        Rol admin = rolRepository.save(new Rol(null, Rol.RolNombre.ADMIN, "Administrador"));
+        Rol lector = rolRepository.save(new Rol(null, Rol.RolNombre.LECTOR, "Lector"));
+
+        Usuario ana = usuario("Ana", "Pérez", "12345678", true, "ana");
+        Usuario luis = usuario("Luis", "Gómez_Luna", "12399999", true, "luis");
+        Usuario carla = usuario("Carla", "GomezXLuna", "12400000", true, "carla");
+        usuario("Mar%a", "Díaz", "01234567", false, "maria");
+        Usuario pablo = usuario("Pablo", "Zapata", "99999999", true, "pablo");
+
+        // Ana tiene dos roles: no debe aparecer dos veces ni contar doble
+        usuarioRolRepository.saveAll(List.of(
+                usuarioRol(ana, admin), usuarioRol(ana, lector),
+                usuarioRol(luis, lector), usuarioRol(carla, lector), usuarioRol(pablo, admin)));
+    }
+
+    @Test
+    void filtraPorPrefijoDeDni() {
+        PaginaUsuariosDto pagina = usuarioService.listarPagina(0, 20, null, null, null, "123", null);
+
+        assertEquals(Set.of("ana", "luis"), nombresDeUsuario(pagina.getContenido()));
+        assertEquals(2, pagina.getTotalElementos());
+    }
+
+    @Test
+    void prefijoDeDniTerminadoEnNueve() {
+        // Como rango "1239" pasaba a ["1239", "123:"), que fuera de la collation C no contiene nada
+        assertEquals(Set.of("luis"),
+                nombresDeUsuario(usuarioService.listarPagina(0, 20, null, null, null, "1239", null).getContenido()));
+        assertEquals(Set.of("pablo"),
+                nombresDeUsuario(usuarioService.listarPagina(0, 20, null, null, null, "9", null).getContenido()));
+    }
+
+    @Test
+    void comodinesDelDniSeBuscanLiterales() {
+        assertEquals(0, usuarioService.listarPagina(0, 20, null, null, null, "12_", null).getTotalElementos());
+        assertEquals(0, usuarioService.listarPagina(0, 20, null, null, null, "%", null).getTotalElementos());
+    }
+
+    @Test
+    void comodinesDelNombreSeBuscanLiterales() {
+        // Sin escapar, "_" también encontraría "GomezXLuna" y "%" a todos
+        assertEquals(Set.of("luis"),
+                nombresDeUsuario(usuarioService.listarPagina(0, 20, null, null, null, null, "z_l").getContenido()));
+        assertEquals(Set.of("maria"),
+                nombresDeUsuario(usuarioService.listarPagina(0, 20, null, null, null, null, "%").getContenido()));
+    }
+
+    @Test
+    void elConteoNoSeDuplicaConVariosRoles() {
+        PaginaUsuariosDto primera = usuarioService.listarPagina(0, 2, null, null, null, null, null);
+
+        assertEquals(5, primera.getTotalElementos());
+        assertEquals(3, primera.getTotalPaginas());
+
+        List<UsuarioListadoDto> todos = new ArrayList<>(primera.getContenido());
+        todos.addAll(usuarioService.listarPagina(1, 2, null, null, null, null, null).getContenido());
+        todos.addAll(usuarioService.listarPagina(2, 2, null, null, null, null, null).getContenido());
+        assertEquals(5, todos.size());
+        assertEquals(5, new HashSet<>(todos.stream().map(UsuarioListadoDto::getId).toList()).size());
+    }
+
+    @Test
+    void ordenaPorRolYDesempataPorId() {
+        PaginaUsuariosDto pagina = usuarioService.listarPagina(0, 20, "rol", "asc", true, null, null);
+
+        // Ana figura con su rol de menor id (ADMIN)
+        assertEquals(List.of("ana", "pablo", "luis", "carla"),
+                pagina.getContenido().stream().map(UsuarioListadoDto::getUserName).toList());
+    }
+
+    @Test
+    void rechazaOrdenFueraDeLaLista() {
+        assertThrows(IllegalArgumentException.class,
+                () -> usuarioService.listarPagina(0, 20, "authUser.password", null, null, null, null));
+    }
+
+    private Usuario usuario(String nombres, String apellidoPaterno, String dni, boolean estado, String userName) {
+        Usuario usuario = new Usuario();
+        usuario.setNombres(nombres);
+        usuario.setApellidoPaterno(apellidoPaterno);
+        usuario.setApellidoMaterno("Materno");
+        usuario.setDni(dni);
+        usuario.setEstado(estado);
+        usuario.setAuthUser(new AuthUser(0, userName, "clave"));
+        return usuarioRepository.save(usuario);
+    }
+
+    private static UsuarioRol usuarioRol(Usuario usuario, Rol rol) {
+        return new UsuarioRol(new UsuarioRolPK(usuario.getId(), rol.getIdRol()), usuario, rol);
+    }
+
+    private static Set<String> nombresDeUsuario(List<UsuarioListadoDto> usuarios) {
+        return usuarios.stream().map(UsuarioListadoDto::getUserName).collect(Collectors.toSet());
+    }
+}
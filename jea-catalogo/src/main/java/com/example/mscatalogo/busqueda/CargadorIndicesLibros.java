@@ -0,0 +1,106 @@
+package com.example.mscatalogo.busqueda;
+
+import com.example.mscatalogo.entity.Libro;
+import com.example.mscatalogo.evento.LibroCambiadoEvento;
+import com.example.mscatalogo.repository.LibroRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Llena los índices en memoria al arrancar y les reenvía cada cambio confirmado.
+ *
+ * Los cambios que llegan durante el recorrido inicial se guardan y se aplican al terminarlo, en orden:
+ * aplicados en el momento, una fila leída después por el recorrido podría ser anterior al cambio y
+ * pisarlo con datos viejos.
+ */
+@Component
+public class CargadorIndicesLibros {
+
+    private static final Logger log = LoggerFactory.getLogger(CargadorIndicesLibros.class);
+
+    private final List<IndiceEnMemoria> indices;
+    private final LibroRepository libroRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    // Distinto de null mientras dura el recorrido inicial
+    private List<LibroCambiadoEvento> pendientes;
+
+    public CargadorIndicesLibros(List<IndiceEnMemoria> indices,
+                                 LibroRepository libroRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 EntityManager entityManager) {
+        this.indices = indices;
+        this.libroRepository = libroRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        long inicio = System.currentTimeMillis();
+        synchronized (this) {
+            pendientes = new ArrayList<>();
+        }
+        indices.forEach(IndiceEnMemoria::limpiar);
+
+        Long total;
+        int aplicados;
+        try {
+            total = transactionTemplate.execute(status -> {
+                long cargados = 0;
+                try (Stream<Libro> libros = libroRepository.streamTodos()) {
+                    for (Libro libro : (Iterable<Libro>) libros::iterator) {
+                        for (IndiceEnMemoria indice : indices) {
+                            indice.indexar(libro);
+                        }
+                        entityManager.detach(libro);
+                        cargados++;
+                    }
+                }
+                return cargados;
+            });
+        } finally {
+            synchronized (this) {
+                aplicados = pendientes.size();
+                pendientes.forEach(this::aplicar);
+                pendientes = null;
+            }
+        }
+        indices.forEach(IndiceEnMemoria::cargaCompleta);
+
+        log.info("Índices en memoria cargados con {} libros y {} cambios posteriores en {} ms",
+                total, aplicados, System.currentTimeMillis() - inicio);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarLibro(LibroCambiadoEvento evento) {
+        synchronized (this) {
+            if (pendientes != null) {
+                pendientes.add(evento);
+                return;
+            }
+        }
+        aplicar(evento);
+    }
+
+    private void aplicar(LibroCambiadoEvento evento) {
+        for (IndiceEnMemoria indice : indices) {
+            if (evento.getTipo() == LibroCambiadoEvento.Tipo.ELIMINADO) {
+                indice.eliminar(evento.getLibroId());
+            } else {
+                indice.indexar(evento.getLibro());
+            }
+        }
+    }
+}
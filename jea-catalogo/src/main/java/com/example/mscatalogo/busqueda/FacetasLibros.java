@@ -0,0 +1,241 @@
+package com.example.mscatalogo.busqueda;
+
+import com.example.mscatalogo.dto.ConteoFacetaDto;
+import com.example.mscatalogo.dto.FacetasDto;
+import com.example.mscatalogo.entity.Categoria;
+import com.example.mscatalogo.entity.Libro;
+import com.example.mscatalogo.evento.CategoriaCambiadaEvento;
+import org.hibernate.Hibernate;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Conteos por categoría, editorial, década de publicación y disponibilidad, mantenidos al día con
+ * cada alta, cambio o baja. Solo cuentan los libros activos, que son los que se muestran al buscar.
+ * Sin consulta la respuesta cuesta O(valores de faceta); con consulta, O(libros que coinciden).
+ */
+@Component
+public class FacetasLibros implements IndiceEnMemoria {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Lo que aportó cada libro a los conteos, para poder restarlo cuando cambia
+    private final Map<Long, Aporte> aportes = new HashMap<>();
+
+    private final Map<Long, Integer> porCategoria = new HashMap<>();
+    private final Map<String, Integer> porEditorial = new HashMap<>();
+    private final Map<Integer, Integer> porDecada = new HashMap<>();
+    private int disponibles;
+
+    // Etiquetas: nombre de cada categoría y la forma de escribir cada editorial tal como llegó
+    private final Map<Long, String> nombresCategoria = new HashMap<>();
+    private final Map<String, String> nombresEditorial = new HashMap<>();
+
+    @Override
+    public void limpiar() {
+        lock.writeLock().lock();
+        try {
+            aportes.clear();
+            porCategoria.clear();
+            porEditorial.clear();
+            porDecada.clear();
+            disponibles = 0;
+            nombresCategoria.clear();
+            nombresEditorial.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void indexar(Libro libro) {
+        Aporte aporte = null;
+        if (libro.isEstado()) {
+            String editorial = libro.getEditorial() == null || libro.getEditorial().isBlank()
+                    ? null
+                    : NormalizadorTexto.normalizar(libro.getEditorial());
+            aporte = new Aporte(
+                    libro.getCategoria() == null ? null : libro.getCategoria().getId(),
+                    editorial,
+                    libro.getAnioPublicacion() == null ? null : Math.floorDiv(libro.getAnioPublicacion(), 10) * 10,
+                    libro.getStockDisponible() != null && libro.getStockDisponible() > 0);
+        }
+
+        lock.writeLock().lock();
+        try {
+            restar(aportes.remove(libro.getId()));
+            if (aporte == null) {
+                return;
+            }
+            aportes.put(libro.getId(), aporte);
+            sumar(aporte);
+
+            // Un libro recién creado trae solo el id de su categoría; el nombre llega con otro evento
+            Categoria categoria = libro.getCategoria();
+            if (categoria != null && Hibernate.isInitialized(categoria) && categoria.getNombre() != null) {
+                nombresCategoria.put(categoria.getId(), categoria.getNombre());
+            }
+            if (aporte.editorial != null) {
+                nombresEditorial.putIfAbsent(aporte.editorial, libro.getEditorial().trim());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void eliminar(Long libroId) {
+        lock.writeLock().lock();
+        try {
+            restar(aportes.remove(libroId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void alCambiarCategoria(CategoriaCambiadaEvento evento) {
+        lock.writeLock().lock();
+        try {
+            if (evento.getTipo() == CategoriaCambiadaEvento.Tipo.ELIMINADA) {
+                nombresCategoria.remove(evento.getCategoriaId());
+            } else if (evento.getCategoria() != null) {
+                nombresCategoria.put(evento.getCategoriaId(), evento.getCategoria().getNombre());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Conteos de todo el catálogo (ids == null) o solo de esos libros. Editoriales y categorías se
+     * ordenan por cantidad y se cortan en el límite; las décadas van todas, de la más reciente a la más vieja.
+     */
+    public FacetasDto contar(Collection<Long> ids, int limite) {
+        lock.readLock().lock();
+        try {
+            if (ids == null) {
+                return armar(aportes.size(), disponibles, porCategoria, porEditorial, porDecada, limite);
+            }
+
+            Map<Long, Integer> categorias = new HashMap<>();
+            Map<String, Integer> editoriales = new HashMap<>();
+            Map<Integer, Integer> decadas = new HashMap<>();
+            int total = 0;
+            int conStock = 0;
+            for (Long id : ids) {
+                Aporte aporte = aportes.get(id);
+                if (aporte == null) {
+                    continue;
+                }
+                total++;
+                if (aporte.disponible) {
+                    conStock++;
+                }
+                if (aporte.categoriaId != null) {
+                    categorias.merge(aporte.categoriaId, 1, Integer::sum);
+                }
+                if (aporte.editorial != null) {
+                    editoriales.merge(aporte.editorial, 1, Integer::sum);
+                }
+                if (aporte.decada != null) {
+                    decadas.merge(aporte.decada, 1, Integer::sum);
+                }
+            }
+            return armar(total, conStock, categorias, editoriales, decadas, limite);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Debe llamarse con el lock de lectura tomado
+    private FacetasDto armar(int total, int conStock, Map<Long, Integer> categorias,
+                             Map<String, Integer> editoriales, Map<Integer, Integer> decadas, int limite) {
+        List<ConteoFacetaDto> listaCategorias = new ArrayList<>(categorias.size());
+        categorias.forEach((id, cantidad) -> listaCategorias.add(
+                new ConteoFacetaDto(String.valueOf(id), nombresCategoria.getOrDefault(id, String.valueOf(id)), cantidad)));
+
+        List<ConteoFacetaDto> listaEditoriales = new ArrayList<>(editoriales.size());
+        editoriales.forEach((clave, cantidad) -> {
+            String nombre = nombresEditorial.getOrDefault(clave, clave);
+            listaEditoriales.add(new ConteoFacetaDto(nombre, nombre, cantidad));
+        });
+
+        List<ConteoFacetaDto> listaDecadas = new ArrayList<>(decadas.size());
+        decadas.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Integer>comparingByKey().reversed())
+                .forEach(e -> listaDecadas.add(
+                        new ConteoFacetaDto(String.valueOf(e.getKey()), e.getKey() + "-" + (e.getKey() + 9), e.getValue())));
+
+        return new FacetasDto(total, conStock, recortar(listaCategorias, limite),
+                recortar(listaEditoriales, limite), listaDecadas);
+    }
+
+    private static List<ConteoFacetaDto> recortar(List<ConteoFacetaDto> conteos, int limite) {
+        conteos.sort(Comparator.comparingInt(ConteoFacetaDto::getCantidad).reversed()
+                .thenComparing(ConteoFacetaDto::getEtiqueta));
+        return conteos.size() > limite ? new ArrayList<>(conteos.subList(0, limite)) : conteos;
+    }
+
+    // Deben llamarse con el lock de escritura tomado
+    private void sumar(Aporte aporte) {
+        if (aporte.categoriaId != null) {
+            porCategoria.merge(aporte.categoriaId, 1, Integer::sum);
+        }
+        if (aporte.editorial != null) {
+            porEditorial.merge(aporte.editorial, 1, Integer::sum);
+        }
+        if (aporte.decada != null) {
+            porDecada.merge(aporte.decada, 1, Integer::sum);
+        }
+        if (aporte.disponible) {
+            disponibles++;
+        }
+    }
+
+    private void restar(Aporte aporte) {
+        if (aporte == null) {
+            return;
+        }
+        if (aporte.categoriaId != null) {
+            decrementar(porCategoria, aporte.categoriaId);
+        }
+        if (aporte.editorial != null && decrementar(porEditorial, aporte.editorial)) {
+            nombresEditorial.remove(aporte.editorial);
+        }
+        if (aporte.decada != null) {
+            decrementar(porDecada, aporte.decada);
+        }
+        if (aporte.disponible) {
+            disponibles--;
+        }
+    }
+
+    // Devuelve true si el valor dejó de tener libros
+    private static <K> boolean decrementar(Map<K, Integer> conteos, K clave) {
+        Integer restante = conteos.computeIfPresent(clave, (k, cantidad) -> cantidad > 1 ? cantidad - 1 : null);
+        return restante == null;
+    }
+
+    private static final class Aporte {
+        private final Long categoriaId;
+        private final String editorial; // normalizada
+        private final Integer decada;
+        private final boolean disponible;
+
+        Aporte(Long categoriaId, String editorial, Integer decada, boolean disponible) {
+            this.categoriaId = categoriaId;
+            this.editorial = editorial;
+            this.decada = decada;
+            this.disponible = disponible;
+        }
+    }
+}
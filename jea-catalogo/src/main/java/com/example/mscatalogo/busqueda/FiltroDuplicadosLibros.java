@@ -0,0 +1,153 @@
+package com.example.mscatalogo.busqueda;
+
+import com.example.mscatalogo.entity.Libro;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom con los códigos, títulos e ISBN normalizados de todo el catálogo.
+ * Si dice que un valor puede estar, la creación lo confirma contra la base de datos antes de
+ * guardar nada; si dice que no está, se salta esa consulta.
+ *
+ * El filtro es de esta instancia y solo ve los libros que cargó al arrancar y los eventos locales:
+ * un libro creado por otra instancia no está marcado. Por eso un "no está" nunca basta para aceptar
+ * un duplicado; quien decide son las restricciones únicas de codigo, titulo e isbn al insertar.
+ *
+ * Un filtro de Bloom no permite quitar valores: al borrar o editar un libro sus valores viejos
+ * quedan marcados y solo provocan una consulta de más. Se reconstruye desde cero en cada arranque.
+ */
+@Component
+public class FiltroDuplicadosLibros implements IndiceEnMemoria {
+
+    private static final String PREFIJO_CODIGO = "c:";
+    private static final String PREFIJO_TITULO = "t:";
+    private static final String PREFIJO_ISBN = "i:";
+
+    // Cada libro aporta hasta tres valores: código, título e ISBN
+    private static final int VALORES_POR_LIBRO = 3;
+
+    private static final Logger log = LoggerFactory.getLogger(FiltroDuplicadosLibros.class);
+
+    private final int totalBits;
+    private final int funcionesHash;
+    private final long capacidad;
+
+    // Valores agregados desde la última limpieza; pasada la capacidad crecen los falsos positivos
+    private final AtomicLong agregados = new AtomicLong();
+
+    private volatile AtomicLongArray bits;
+
+    // Mientras se carga el catálogo no se puede afirmar que algo no existe
+    private volatile boolean cargado;
+
+    public FiltroDuplicadosLibros(@Value("${catalogo.duplicados.libros:500000}") int libros,
+                                  @Value("${catalogo.duplicados.falsos-positivos:0.01}") double falsosPositivos) {
+        long capacidad = (long) libros * VALORES_POR_LIBRO;
+        this.capacidad = capacidad;
+        // Tamaño óptimo: m = -n ln(p) / ln(2)^2 bits y k = m/n ln(2) funciones
+        long m = (long) Math.ceil(-capacidad * Math.log(falsosPositivos) / (Math.log(2) * Math.log(2)));
+        this.totalBits = (int) Math.min(Math.max(m, Long.SIZE), Integer.MAX_VALUE - Long.SIZE);
+        this.funcionesHash = Math.max(1, (int) Math.round((double) totalBits / capacidad * Math.log(2)));
+        this.bits = new AtomicLongArray((totalBits + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    @Override
+    public void limpiar() {
+        cargado = false;
+        agregados.set(0);
+        bits = new AtomicLongArray(bits.length());
+    }
+
+    @Override
+    public void cargaCompleta() {
+        if (agregados.get() > capacidad) {
+            log.warn("El filtro de duplicados tiene {} valores y está dimensionado para {}: "
+                    + "subir catalogo.duplicados.libros", agregados.get(), capacidad);
+        }
+        cargado = true;
+    }
+
+    @Override
+    public void indexar(Libro libro) {
+        agregar(PREFIJO_CODIGO, libro.getCodigo());
+        agregar(PREFIJO_TITULO, libro.getTitulo());
+        agregar(PREFIJO_ISBN, libro.getIsbn());
+    }
+
+    @Override
+    public void eliminar(Long libroId) {
+        // Sin efecto: ver comentario de la clase
+    }
+
+    public boolean puedeExistirCodigo(String codigo) {
+        return puedeExistir(PREFIJO_CODIGO, codigo);
+    }
+
+    public boolean puedeExistirTitulo(String titulo) {
+        return puedeExistir(PREFIJO_TITULO, titulo);
+    }
+
+    public boolean puedeExistirIsbn(String isbn) {
+        return puedeExistir(PREFIJO_ISBN, isbn);
+    }
+
+    private void agregar(String prefijo, String valor) {
+        if (valor == null || valor.isBlank()) {
+            return;
+        }
+        agregados.incrementAndGet();
+        AtomicLongArray actual = bits;
+        long hash = hash64(prefijo + NormalizadorTexto.normalizar(valor));
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < funcionesHash; i++) {
+            int bit = Math.floorMod(h1 + i * h2, totalBits);
+            int palabra = bit >>> 6;
+            long mascara = 1L << bit;
+            long anterior;
+            do {
+                anterior = actual.get(palabra);
+            } while ((anterior & mascara) == 0 && !actual.compareAndSet(palabra, anterior, anterior | mascara));
+        }
+    }
+
+    private boolean puedeExistir(String prefijo, String valor) {
+        if (valor == null || valor.isBlank()) {
+            return false;
+        }
+        if (!cargado) {
+            return true;
+        }
+        AtomicLongArray actual = bits;
+        long hash = hash64(prefijo + NormalizadorTexto.normalizar(valor));
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < funcionesHash; i++) {
+            int bit = Math.floorMod(h1 + i * h2, totalBits);
+            if ((actual.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a de 64 bits con mezcla final; las dos mitades alimentan el doble hashing de Kirsch-Mitzenmacher
+    private static long hash64(String texto) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < texto.length(); i++) {
+            h ^= texto.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
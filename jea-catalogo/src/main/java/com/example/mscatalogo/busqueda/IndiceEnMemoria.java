@@ -0,0 +1,21 @@
+package com.example.mscatalogo.busqueda;
+
+import com.example.mscatalogo.entity.Libro;
+
+/**
+ * Estructura derivada del catálogo que vive en memoria. CargadorIndicesLibros la llena al arrancar
+ * con un solo recorrido de la tabla y luego le reenvía cada cambio hecho por LibroServiceImpl.
+ */
+public interface IndiceEnMemoria {
+
+    void limpiar();
+
+    void indexar(Libro libro);
+
+    void eliminar(Long libroId);
+
+    // Se llama cuando terminó el recorrido inicial; antes de eso el índice puede estar incompleto
+    default void cargaCompleta() {
+    }
+
+}
@@ -0,0 +1,277 @@
+package com.example.mscatalogo.busqueda;
+
+import com.example.mscatalogo.dto.ResultadoBusquedaDto;
+import com.example.mscatalogo.entity.Libro;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de titulo, autor, editorial y descripcion con ranking BM25.
+ * Las frecuencias se ponderan por campo (un término en el título pesa más que en la descripción).
+ * Solo se indexan los libros activos.
+ */
+@Component
+public class IndiceInvertidoLibros implements IndiceEnMemoria {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final float PESO_TITULO = 3.0f;
+    private static final float PESO_AUTOR = 2.0f;
+    private static final float PESO_EDITORIAL = 1.0f;
+    private static final float PESO_DESCRIPCION = 1.0f;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> terminos = new HashMap<>();
+    private final Map<Long, Documento> documentos = new HashMap<>();
+    private double longitudTotal;
+
+    @Override
+    public void limpiar() {
+        lock.writeLock().lock();
+        try {
+            terminos.clear();
+            documentos.clear();
+            longitudTotal = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void indexar(Libro libro) {
+        // Los libros inactivos no se buscan, igual que en las sugerencias y las facetas
+        if (!libro.isEstado()) {
+            eliminar(libro.getId());
+            return;
+        }
+
+        Map<String, Float> frecuencias = new HashMap<>();
+        acumular(frecuencias, libro.getTitulo(), PESO_TITULO);
+        acumular(frecuencias, libro.getAutor(), PESO_AUTOR);
+        acumular(frecuencias, libro.getEditorial(), PESO_EDITORIAL);
+        acumular(frecuencias, libro.getDescripcion(), PESO_DESCRIPCION);
+
+        String[] terminosDocumento = new String[frecuencias.size()];
+        float[] tfs = new float[frecuencias.size()];
+        float longitud = 0;
+        int n = 0;
+        for (Map.Entry<String, Float> entrada : frecuencias.entrySet()) {
+            terminosDocumento[n] = entrada.getKey();
+            tfs[n] = entrada.getValue();
+            longitud += tfs[n];
+            n++;
+        }
+
+        Documento documento = new Documento(
+                libro.getId(), libro.getCodigo(), libro.getTitulo(), libro.getAutor(), libro.getEditorial(),
+                terminosDocumento, longitud);
+
+        lock.writeLock().lock();
+        try {
+            quitar(libro.getId());
+            for (int i = 0; i < terminosDocumento.length; i++) {
+                documento.posiciones[i] = terminos.computeIfAbsent(terminosDocumento[i], t -> new Postings())
+                        .agregar(libro.getId(), tfs[i], i);
+            }
+            documentos.put(libro.getId(), documento);
+            longitudTotal += longitud;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void eliminar(Long libroId) {
+        lock.writeLock().lock();
+        try {
+            quitar(libroId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ResultadoBusquedaDto> buscar(String consulta, int limite) {
+        // Términos repetidos en la consulta no deben sumar dos veces
+        Set<String> tokens = new LinkedHashSet<>(NormalizadorTexto.tokenizar(consulta));
+        if (tokens.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int totalDocumentos = documentos.size();
+            if (totalDocumentos == 0) {
+                return List.of();
+            }
+            double longitudPromedio = longitudTotal / totalDocumentos;
+
+            Map<Long, Double> puntajes = new HashMap<>();
+            for (String token : tokens) {
+                Postings postings = terminos.get(token);
+                if (postings == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (totalDocumentos - postings.tamanio + 0.5) / (postings.tamanio + 0.5));
+
+                for (int i = 0; i < postings.tamanio; i++) {
+                    long id = postings.ids[i];
+                    double tf = postings.frecuencias[i];
+                    double normalizacion = K1 * (1 - B + B * documentos.get(id).longitud / longitudPromedio);
+                    double puntaje = idf * (tf * (K1 + 1)) / (tf + normalizacion);
+                    puntajes.merge(id, puntaje, Double::sum);
+                }
+            }
+
+            // Montículo de mínimos acotado al límite: O(n log k) en lugar de ordenar todo
+            PriorityQueue<Map.Entry<Long, Double>> mejores =
+                    new PriorityQueue<>(limite + 1, Map.Entry.comparingByValue());
+            for (Map.Entry<Long, Double> entrada : puntajes.entrySet()) {
+                mejores.offer(entrada);
+                if (mejores.size() > limite) {
+                    mejores.poll();
+                }
+            }
+
+            List<ResultadoBusquedaDto> resultados = new ArrayList<>(mejores.size());
+            for (Map.Entry<Long, Double> entrada : mejores) {
+                Documento d = documentos.get(entrada.getKey());
+                resultados.add(new ResultadoBusquedaDto(
+                        d.id, d.codigo, d.titulo, d.autor, d.editorial, entrada.getValue()));
+            }
+            resultados.sort(Comparator.comparingDouble(ResultadoBusquedaDto::getPuntaje).reversed());
+            return resultados;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids de todos los libros con al menos un término de la consulta, sin ranking (ej: facetas)
+    public Set<Long> coincidencias(String consulta) {
+        Set<String> tokens = new LinkedHashSet<>(NormalizadorTexto.tokenizar(consulta));
+        Set<Long> ids = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            for (String token : tokens) {
+                Postings postings = terminos.get(token);
+                if (postings != null) {
+                    for (int i = 0; i < postings.tamanio; i++) {
+                        ids.add(postings.ids[i]);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+
+    public int totalDocumentos() {
+        lock.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Debe llamarse con el lock de escritura tomado
+    private void quitar(Long libroId) {
+        Documento anterior = documentos.remove(libroId);
+        if (anterior == null) {
+            return;
+        }
+        for (int i = 0; i < anterior.terminos.length; i++) {
+            Postings postings = terminos.get(anterior.terminos[i]);
+            int movida = postings.quitar(anterior.posiciones[i]);
+            if (movida >= 0) {
+                // La aparición que ocupó el hueco es de otro libro: se actualiza dónde quedó
+                documentos.get(postings.ids[movida]).posiciones[postings.ranuras[movida]] = movida;
+            }
+            if (postings.tamanio == 0) {
+                terminos.remove(anterior.terminos[i]);
+            }
+        }
+        longitudTotal -= anterior.longitud;
+    }
+
+    private static void acumular(Map<String, Float> frecuencias, String texto, float peso) {
+        for (String token : NormalizadorTexto.tokenizar(texto)) {
+            frecuencias.merge(token, peso, Float::sum);
+        }
+    }
+
+    /**
+     * Lista de apariciones de un término en arreglos primitivos para no crear un objeto por libro.
+     * Cada aparición guarda además en qué ranura de Documento.terminos está el término, y el documento
+     * guarda en qué posición de cada lista quedó: así quitar un libro no recorre listas de miles.
+     */
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private float[] frecuencias = new float[4];
+        private int[] ranuras = new int[4];
+        private int tamanio;
+
+        // Devuelve la posición donde quedó
+        int agregar(long id, float frecuencia, int ranura) {
+            if (tamanio == ids.length) {
+                ids = Arrays.copyOf(ids, tamanio * 2);
+                frecuencias = Arrays.copyOf(frecuencias, tamanio * 2);
+                ranuras = Arrays.copyOf(ranuras, tamanio * 2);
+            }
+            ids[tamanio] = id;
+            frecuencias[tamanio] = frecuencia;
+            ranuras[tamanio] = ranura;
+            return tamanio++;
+        }
+
+        // El orden de las apariciones no importa, así que el hueco lo ocupa la última. Devuelve la
+        // posición de la aparición movida, o -1 si se quitó justo la última
+        int quitar(int posicion) {
+            tamanio--;
+            if (posicion == tamanio) {
+                return -1;
+            }
+            ids[posicion] = ids[tamanio];
+            frecuencias[posicion] = frecuencias[tamanio];
+            ranuras[posicion] = ranuras[tamanio];
+            return posicion;
+        }
+    }
+
+    private static final class Documento {
+        private final long id;
+        private final String codigo;
+        private final String titulo;
+        private final String autor;
+        private final String editorial;
+        private final String[] terminos;
+        // posiciones[i]: índice de este libro en la lista de terminos[i]
+        private final int[] posiciones;
+        private final float longitud;
+
+        Documento(long id, String codigo, String titulo, String autor, String editorial,
+                  String[] terminos, float longitud) {
+            this.id = id;
+            this.codigo = codigo;
+            this.titulo = titulo;
+            this.autor = autor;
+            this.editorial = editorial;
+            this.terminos = terminos;
+            this.posiciones = new int[terminos.length];
+            this.longitud = longitud;
+        }
+    }
+}
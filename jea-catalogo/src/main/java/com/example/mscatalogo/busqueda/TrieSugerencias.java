@@ -0,0 +1,422 @@
+package com.example.mscatalogo.busqueda;
+
+import com.example.mscatalogo.dto.SugerenciaDto;
+import com.example.mscatalogo.entity.Libro;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Trie radix (aristas comprimidas) de titulo, autor e isbn para el autocompletado.
+ * Cada nodo guarda el peso máximo de su subárbol, así la búsqueda recorre primero las ramas con
+ * más stock disponible y se detiene apenas junta el límite pedido, sin visitar todo el prefijo.
+ */
+@Component
+public class TrieSugerencias implements IndiceEnMemoria {
+
+    public static final String TIPO_TITULO = "TITULO";
+    public static final String TIPO_AUTOR = "AUTOR";
+    public static final String TIPO_ISBN = "ISBN";
+
+    private static final Pattern PARECE_ISBN = Pattern.compile("[0-9xX\\-\\s]+");
+
+    private static final Nodo[] SIN_HIJOS = new Nodo[0];
+    private static final Entrada[] SIN_ENTRADAS = new Entrada[0];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Nodo raiz = new Nodo("");
+
+    // Claves insertadas por libro, para poder quitarlas cuando el libro cambia
+    private final Map<Long, String[]> clavesPorLibro = new HashMap<>();
+
+    @Override
+    public void limpiar() {
+        lock.writeLock().lock();
+        try {
+            raiz = new Nodo("");
+            clavesPorLibro.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void indexar(Libro libro) {
+        lock.writeLock().lock();
+        try {
+            quitarLibro(libro.getId());
+
+            // Los libros inactivos no se sugieren
+            if (!libro.isEstado()) {
+                return;
+            }
+
+            // Se suma 1 para que los libros sin stock sigan apareciendo, aunque al final
+            int stock = libro.getStockDisponible() == null ? 0 : Math.max(libro.getStockDisponible(), 0);
+            int peso = stock + 1;
+
+            String[] claves = new String[3];
+            claves[0] = insertarSiHayTexto(clave(libro.getTitulo()), libro.getTitulo(), TIPO_TITULO, libro.getId(), peso);
+            claves[1] = insertarSiHayTexto(clave(libro.getAutor()), libro.getAutor(), TIPO_AUTOR, libro.getId(), peso);
+            claves[2] = insertarSiHayTexto(claveIsbn(libro.getIsbn()), libro.getIsbn(), TIPO_ISBN, libro.getId(), peso);
+            clavesPorLibro.put(libro.getId(), claves);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void eliminar(Long libroId) {
+        lock.writeLock().lock();
+        try {
+            quitarLibro(libroId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<SugerenciaDto> sugerir(String texto, int limite) {
+        if (texto == null || texto.isBlank() || limite <= 0) {
+            return List.of();
+        }
+
+        String prefijo = clave(texto);
+        String prefijoIsbn = PARECE_ISBN.matcher(texto).matches() ? claveIsbn(texto) : null;
+
+        lock.readLock().lock();
+        try {
+            List<SugerenciaDto> resultados = new ArrayList<>(limite);
+            Set<String> vistos = new HashSet<>();
+            recolectar(prefijo, limite, resultados, vistos);
+            if (prefijoIsbn != null && !prefijoIsbn.equals(prefijo) && resultados.size() < limite) {
+                recolectar(prefijoIsbn, limite, resultados, vistos);
+            }
+            return resultados;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void recolectar(String prefijo, int limite, List<SugerenciaDto> resultados, Set<String> vistos) {
+        if (prefijo.isEmpty()) {
+            return;
+        }
+        Nodo inicio = buscarNodo(prefijo);
+        if (inicio == null) {
+            return;
+        }
+
+        // Búsqueda primero-el-mejor: los nodos entran con el peso máximo de su subárbol,
+        // por lo que cualquier entrada que salga antes que un nodo pesa al menos lo mismo que todo él.
+        PriorityQueue<Candidato> cola = new PriorityQueue<>();
+        cola.offer(new Candidato(inicio.pesoMaximo, inicio, null));
+
+        while (!cola.isEmpty() && resultados.size() < limite) {
+            Candidato candidato = cola.poll();
+            if (candidato.entrada != null) {
+                Entrada e = candidato.entrada;
+                if (vistos.add(e.tipo + "|" + e.texto)) {
+                    Long libroId = TIPO_AUTOR.equals(e.tipo) ? null : e.libroId;
+                    resultados.add(new SugerenciaDto(e.texto, e.tipo, libroId, e.peso));
+                }
+                continue;
+            }
+            for (Entrada e : candidato.nodo.entradas) {
+                cola.offer(new Candidato(e.peso, null, e));
+            }
+            for (Nodo hijo : candidato.nodo.hijos) {
+                cola.offer(new Candidato(hijo.pesoMaximo, hijo, null));
+            }
+        }
+    }
+
+    // Devuelve el nodo cuyo subárbol contiene todas las claves que empiezan con el prefijo
+    private Nodo buscarNodo(String prefijo) {
+        Nodo nodo = raiz;
+        int i = 0;
+        while (i < prefijo.length()) {
+            Nodo hijo = nodo.hijo(prefijo.charAt(i));
+            if (hijo == null) {
+                return null;
+            }
+            String etiqueta = hijo.etiqueta;
+            int comparar = Math.min(etiqueta.length(), prefijo.length() - i);
+            if (!prefijo.regionMatches(i, etiqueta, 0, comparar)) {
+                return null;
+            }
+            i += comparar;
+            nodo = hijo;
+        }
+        return nodo;
+    }
+
+    // Debe llamarse con el lock de escritura tomado
+    private String insertarSiHayTexto(String clave, String texto, String tipo, Long libroId, int peso) {
+        if (clave.isEmpty()) {
+            return null;
+        }
+        Entrada entrada = new Entrada(texto.trim(), tipo, libroId, peso);
+
+        List<Nodo> camino = new ArrayList<>();
+        Nodo nodo = raiz;
+        camino.add(nodo);
+        int i = 0;
+        while (i < clave.length()) {
+            Nodo hijo = nodo.hijo(clave.charAt(i));
+            if (hijo == null) {
+                hijo = new Nodo(clave.substring(i));
+                nodo.agregarHijo(hijo);
+                nodo = hijo;
+                camino.add(nodo);
+                break;
+            }
+
+            int comun = prefijoComun(hijo.etiqueta, clave, i);
+            if (comun < hijo.etiqueta.length()) {
+                // La clave se separa a mitad de la arista: se parte el nodo en dos
+                Nodo intermedio = new Nodo(hijo.etiqueta.substring(0, comun));
+                nodo.reemplazarHijo(hijo, intermedio);
+                hijo.etiqueta = hijo.etiqueta.substring(comun);
+                intermedio.hijos = new Nodo[]{hijo};
+                intermedio.pesoMaximo = hijo.pesoMaximo;
+                hijo = intermedio;
+            }
+            nodo = hijo;
+            camino.add(nodo);
+            i += comun;
+        }
+
+        nodo.agregarEntrada(entrada);
+        for (Nodo n : camino) {
+            n.pesoMaximo = Math.max(n.pesoMaximo, peso);
+        }
+        return clave;
+    }
+
+    // Debe llamarse con el lock de escritura tomado
+    private void quitarLibro(Long libroId) {
+        String[] claves = clavesPorLibro.remove(libroId);
+        if (claves == null) {
+            return;
+        }
+        quitar(claves[0], TIPO_TITULO, libroId);
+        quitar(claves[1], TIPO_AUTOR, libroId);
+        quitar(claves[2], TIPO_ISBN, libroId);
+    }
+
+    private void quitar(String clave, String tipo, Long libroId) {
+        if (clave == null) {
+            return;
+        }
+
+        List<Nodo> camino = new ArrayList<>();
+        Nodo nodo = raiz;
+        camino.add(nodo);
+        int i = 0;
+        while (i < clave.length()) {
+            Nodo hijo = nodo.hijo(clave.charAt(i));
+            if (hijo == null || !clave.startsWith(hijo.etiqueta, i)) {
+                return;
+            }
+            i += hijo.etiqueta.length();
+            nodo = hijo;
+            camino.add(nodo);
+        }
+        nodo.quitarEntrada(tipo, libroId);
+
+        // De abajo hacia arriba: recalcular pesos, podar hojas vacías y fusionar cadenas de un solo hijo
+        for (int k = camino.size() - 1; k > 0; k--) {
+            Nodo actual = camino.get(k);
+            Nodo padre = camino.get(k - 1);
+
+            if (actual.entradas.length == 0 && actual.hijos.length == 0) {
+                padre.quitarHijo(actual);
+            } else if (actual.entradas.length == 0 && actual.hijos.length == 1) {
+                Nodo unico = actual.hijos[0];
+                actual.etiqueta = actual.etiqueta + unico.etiqueta;
+                actual.hijos = unico.hijos;
+                actual.entradas = unico.entradas;
+                actual.recalcularPeso();
+            } else {
+                actual.recalcularPeso();
+            }
+        }
+        raiz.recalcularPeso();
+    }
+
+    private static int prefijoComun(String etiqueta, String clave, int desde) {
+        int max = Math.min(etiqueta.length(), clave.length() - desde);
+        int i = 0;
+        while (i < max && etiqueta.charAt(i) == clave.charAt(desde + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    // Sin tildes, en minúsculas y con la puntuación reducida a un espacio
+    static String clave(String texto) {
+        String normalizado = NormalizadorTexto.normalizar(texto);
+        StringBuilder sb = new StringBuilder(normalizado.length());
+        boolean espacio = false;
+        for (int i = 0; i < normalizado.length(); i++) {
+            char c = normalizado.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (espacio && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                sb.append(c);
+                espacio = false;
+            } else {
+                espacio = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    static String claveIsbn(String isbn) {
+        if (isbn == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(isbn.length());
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (Character.isDigit(c)) {
+                sb.append(c);
+            } else if (c == 'x' || c == 'X') {
+                sb.append('x');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static final class Nodo {
+        private String etiqueta;
+        private Nodo[] hijos = SIN_HIJOS; // ordenados por el primer carácter de la etiqueta
+        private Entrada[] entradas = SIN_ENTRADAS;
+        private int pesoMaximo;
+
+        Nodo(String etiqueta) {
+            this.etiqueta = etiqueta;
+        }
+
+        Nodo hijo(char c) {
+            int pos = posicion(c);
+            return pos >= 0 ? hijos[pos] : null;
+        }
+
+        void agregarHijo(Nodo hijo) {
+            int pos = -(posicion(hijo.etiqueta.charAt(0)) + 1);
+            Nodo[] nuevos = new Nodo[hijos.length + 1];
+            System.arraycopy(hijos, 0, nuevos, 0, pos);
+            nuevos[pos] = hijo;
+            System.arraycopy(hijos, pos, nuevos, pos + 1, hijos.length - pos);
+            hijos = nuevos;
+        }
+
+        void reemplazarHijo(Nodo anterior, Nodo nuevo) {
+            hijos[posicion(anterior.etiqueta.charAt(0))] = nuevo;
+        }
+
+        void quitarHijo(Nodo hijo) {
+            for (int i = 0; i < hijos.length; i++) {
+                if (hijos[i] == hijo) {
+                    Nodo[] nuevos = new Nodo[hijos.length - 1];
+                    System.arraycopy(hijos, 0, nuevos, 0, i);
+                    System.arraycopy(hijos, i + 1, nuevos, i, hijos.length - i - 1);
+                    hijos = nuevos;
+                    return;
+                }
+            }
+        }
+
+        void agregarEntrada(Entrada entrada) {
+            entradas = Arrays.copyOf(entradas, entradas.length + 1);
+            entradas[entradas.length - 1] = entrada;
+        }
+
+        void quitarEntrada(String tipo, long libroId) {
+            for (int i = 0; i < entradas.length; i++) {
+                if (entradas[i].libroId == libroId && entradas[i].tipo.equals(tipo)) {
+                    Entrada[] nuevas = new Entrada[entradas.length - 1];
+                    System.arraycopy(entradas, 0, nuevas, 0, i);
+                    System.arraycopy(entradas, i + 1, nuevas, i, entradas.length - i - 1);
+                    entradas = nuevas;
+                    return;
+                }
+            }
+        }
+
+        void recalcularPeso() {
+            int max = 0;
+            for (Entrada e : entradas) {
+                max = Math.max(max, e.peso);
+            }
+            for (Nodo h : hijos) {
+                max = Math.max(max, h.pesoMaximo);
+            }
+            pesoMaximo = max;
+        }
+
+        private int posicion(char c) {
+            int bajo = 0;
+            int alto = hijos.length - 1;
+            while (bajo <= alto) {
+                int medio = (bajo + alto) >>> 1;
+                char actual = hijos[medio].etiqueta.charAt(0);
+                if (actual < c) {
+                    bajo = medio + 1;
+                } else if (actual > c) {
+                    alto = medio - 1;
+                } else {
+                    return medio;
+                }
+            }
+            return -(bajo + 1);
+        }
+    }
+
+    private static final class Entrada {
+        private final String texto;
+        private final String tipo;
+        private final long libroId;
+        private final int peso;
+
+        Entrada(String texto, String tipo, long libroId, int peso) {
+            this.texto = texto;
+            this.tipo = tipo;
+            this.libroId = libroId;
+            this.peso = peso;
+        }
+    }
+
+    private static final class Candidato implements Comparable<Candidato> {
+        private final int peso;
+        private final Nodo nodo;
+        private final Entrada entrada;
+
+        Candidato(int peso, Nodo nodo, Entrada entrada) {
+            this.peso = peso;
+            this.nodo = nodo;
+            this.entrada = entrada;
+        }
+
+        // Mayor peso primero; a igual peso, las entradas salen antes que los nodos
+        @Override
+        public int compareTo(Candidato otro) {
+            if (peso != otro.peso) {
+                return Integer.compare(otro.peso, peso);
+            }
+            return Boolean.compare(entrada == null, otro.entrada == null);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.mscatalogo.cache;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cachés de lectura de libros. El proveedor es Caffeine (desalojo W-TinyLFU) y el tamaño, el TTL
+ * y el registro de estadísticas se configuran en spring.cache del application.yml.
+ *
+ * Los cambios hechos por esta instancia se ven apenas se confirman: InvalidadorCacheLibros desaloja
+ * después del commit y no deja que una lectura en curso vuelva a guardar la fila anterior. Lo que
+ * cambie otra instancia o se escriba directo en la base se ve, a lo sumo, cuando vence el TTL.
+ */
+@Configuration
+@EnableCaching
+public class CacheLibrosConfig {
+
+    public static final String LIBROS_POR_ID = "librosPorId";
+    public static final String LIBROS_POR_CODIGO = "librosPorCodigo";
+
+}
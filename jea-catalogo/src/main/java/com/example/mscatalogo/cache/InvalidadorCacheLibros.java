@@ -0,0 +1,86 @@
+package com.example.mscatalogo.cache;
+
+import com.example.mscatalogo.entity.Libro;
+import com.example.mscatalogo.evento.CategoriaCambiadaEvento;
+import com.example.mscatalogo.evento.LibroCambiadoEvento;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Desaloja de las cachés de libros lo que cambió, después de confirmarse la transacción, y guarda lo
+ * que se leyó de la base tras un fallo sin pisar esos desalojos.
+ *
+ * Una lectura que falló puede traer la fila anterior, y si la guarda después de que un cambio la
+ * desalojó se serviría vieja hasta que venza el TTL. Por eso se cuentan las invalidaciones: quien
+ * lee toma marca() antes de ir a la base y guardar() descarta lo leído si desde entonces hubo alguna.
+ */
+@Component
+public class InvalidadorCacheLibros {
+
+    private final CacheManager cacheManager;
+
+    private final AtomicLong invalidaciones = new AtomicLong();
+
+    public InvalidadorCacheLibros(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarLibro(LibroCambiadoEvento evento) {
+        // Antes de desalojar: una lectura que guarde entre este paso y el desalojo igual pierde su entrada
+        invalidaciones.incrementAndGet();
+        Cache porId = cacheManager.getCache(CacheLibrosConfig.LIBROS_POR_ID);
+        Cache porCodigo = cacheManager.getCache(CacheLibrosConfig.LIBROS_POR_CODIGO);
+
+        if (porId != null) {
+            porId.evict(evento.getLibroId());
+        }
+        if (porCodigo != null) {
+            // Un libro recién creado puede tener guardado un "no existe" para su código
+            if (evento.getLibro() != null && evento.getLibro().getCodigo() != null) {
+                porCodigo.evict(evento.getLibro().getCodigo());
+            }
+            if (evento.getCodigoAnterior() != null) {
+                porCodigo.evict(evento.getCodigoAnterior());
+            }
+        }
+    }
+
+    // Cada libro en caché lleva su categoría; los cambios de categoría son raros, se vacía todo
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarCategoria(CategoriaCambiadaEvento evento) {
+        invalidaciones.incrementAndGet();
+        for (String nombre : new String[]{CacheLibrosConfig.LIBROS_POR_ID, CacheLibrosConfig.LIBROS_POR_CODIGO}) {
+            Cache cache = cacheManager.getCache(nombre);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    /**
+     * Se toma antes de leer de la base lo que después se pasa a guardar().
+     */
+    public long marca() {
+        return invalidaciones.get();
+    }
+
+    /**
+     * Guarda un libro leído de la base (null si no existe) salvo que la clave ya tenga valor. Si hubo
+     * una invalidación desde la marca no guarda nada; si llega mientras guarda, quita lo guardado.
+     */
+    public void guardar(String nombreCache, Object clave, Libro libro, long marca) {
+        Cache cache = cacheManager.getCache(nombreCache);
+        if (cache == null || invalidaciones.get() != marca) {
+            return;
+        }
+        cache.putIfAbsent(clave, libro);
+        if (invalidaciones.get() != marca) {
+            cache.evict(clave);
+        }
+    }
+}
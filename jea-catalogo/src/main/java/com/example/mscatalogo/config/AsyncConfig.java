@@ -0,0 +1,61 @@
+package com.example.mscatalogo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    public static final String PORTADAS_EXECUTOR = "portadasExecutor";
+    public static final String EVENTOS_EXECUTOR = "eventosExecutor";
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncConfig.class);
+
+    // Redimensionar usa CPU y memoria: pocos hilos y una cola acotada. Si la cola se llena la tarea
+    // se descarta (la portada original se sigue sirviendo) en lugar de frenar la subida.
+    // Sigue así en modo hilos virtuales: no ayudan con trabajo de CPU.
+    @Bean(name = PORTADAS_EXECUTOR)
+    public ThreadPoolTaskExecutor portadasExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("portadas-");
+        executor.setRejectedExecutionHandler((tarea, pool) ->
+                log.warn("Cola de portadas llena, no se generarán variantes para esta subida"));
+        return executor;
+    }
+
+    // Envío del feed de eventos: un hilo solo mientras un suscriptor tiene eventos pendientes, como
+    // mucho uno por suscriptor. Así un cliente lento que bloquea su envío no frena a los demás.
+    // Es casi todo espera de red, así que en modo hilos virtuales usa uno virtual por envío.
+    @Bean(name = EVENTOS_EXECUTOR)
+    public TaskExecutor eventosExecutor(
+            @Value("${catalogo.eventos.max-suscriptores:200}") int maxSuscriptores,
+            @Value("${hilos-virtuales.habilitado:false}") boolean hilosVirtuales) {
+        if (hilosVirtuales) {
+            Optional<ExecutorService> virtuales = HilosVirtuales.executorPorTarea("eventos-virtual-");
+            if (virtuales.isPresent()) {
+                return new TaskExecutorAdapter(virtuales.get());
+            }
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(0);
+        executor.setMaxPoolSize(maxSuscriptores);
+        executor.setQueueCapacity(0);
+        executor.setKeepAliveSeconds(60);
+        executor.setThreadNamePrefix("eventos-");
+        return executor;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.mscatalogo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Modo opcional (hilos-virtuales.habilitado=true): cada petición HTTP corre en un hilo virtual en
+ * lugar del pool de hilos de Tomcat, y un límite de concurrencia atado al tamaño del pool de
+ * HikariCP evita que todas se amontonen esperando una conexión.
+ * Requiere Java 21; con una JVM anterior se registra una advertencia y todo sigue como antes.
+ */
+@Configuration
+@ConditionalOnProperty(name = "hilos-virtuales.habilitado", havingValue = "true")
+public class HilosVirtualesConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(HilosVirtualesConfig.class);
+
+    private final Optional<ExecutorService> executor = HilosVirtuales.executorPorTarea("http-virtual-");
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> hilosVirtualesTomcat() {
+        return protocolo -> executor.ifPresent(protocolo::setExecutor);
+    }
+
+    @Bean
+    public FilterRegistrationBean<LimiteConcurrenciaFilter> limiteConcurrenciaFilter(
+            DataSource dataSource,
+            @Value("${hilos-virtuales.peticiones-por-conexion:4}") int peticionesPorConexion,
+            @Value("${hilos-virtuales.espera-ms:500}") long esperaMs,
+            @Value("${hilos-virtuales.rutas-excluidas:}") List<String> rutasExcluidas) {
+
+        int conexiones = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+        int maximo = conexiones * peticionesPorConexion;
+        if (executor.isPresent()) {
+            log.info("Peticiones en hilos virtuales, hasta {} simultáneas ({} conexiones x {})",
+                    maximo, conexiones, peticionesPorConexion);
+        }
+
+        FilterRegistrationBean<LimiteConcurrenciaFilter> registro =
+                new FilterRegistrationBean<>(new LimiteConcurrenciaFilter(maximo, esperaMs, rutasExcluidas));
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        // Con hilos de plataforma el pool de Tomcat ya hace de límite
+        registro.setEnabled(executor.isPresent());
+        return registro;
+    }
+}
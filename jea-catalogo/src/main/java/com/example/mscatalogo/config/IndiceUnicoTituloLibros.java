@@ -0,0 +1,79 @@
+package com.example.mscatalogo.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Asegura el índice único de libro.titulo. LibroServiceImpl.guardarConImagen no consulta la base
+ * cuando FiltroDuplicadosLibros descarta el código y el título, y para lo que el filtro no vio confía
+ * en las restricciones únicas. Con ddl-auto: update Hibernate intenta agregar la de titulo, pero si ya
+ * hay títulos repetidos (PUT /libros/{id} nunca los revisó) solo registra el error y sigue.
+ *
+ * Si falta el índice, a cada título repetido salvo el de menor id se le agrega su código entre
+ * paréntesis y se crea el índice, todo en una transacción. Corre antes de atender peticiones; si no
+ * se puede, el servicio no arranca.
+ */
+@Component
+public class IndiceUnicoTituloLibros {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceUnicoTituloLibros.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Recibir el EntityManagerFactory asegura que Hibernate ya actualizó el esquema
+    public IndiceUnicoTituloLibros(JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    public void asegurar() {
+        if (tieneIndiceUnico()) {
+            return;
+        }
+        Integer renombrados = transactionTemplate.execute(status -> {
+            int filas = jdbcTemplate.update("UPDATE libro SET titulo = titulo || ' (' || codigo || ')' "
+                    + "WHERE id NOT IN (SELECT MIN(id) FROM libro GROUP BY titulo)");
+            jdbcTemplate.execute("CREATE UNIQUE INDEX uk_libro_titulo ON libro (titulo)");
+            return filas;
+        });
+        log.warn("Se creó el índice único de libro.titulo; {} títulos repetidos se renombraron con su código",
+                renombrados);
+    }
+
+    // Algún índice único de la tabla libro cuya única columna sea titulo
+    private boolean tieneIndiceUnico() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) conexion -> {
+            DatabaseMetaData metadatos = conexion.getMetaData();
+            String tabla = metadatos.storesUpperCaseIdentifiers() ? "LIBRO" : "libro";
+            Map<String, Set<String>> columnasPorIndice = new HashMap<>();
+            try (ResultSet indices = metadatos.getIndexInfo(conexion.getCatalog(), conexion.getSchema(), tabla, true, false)) {
+                while (indices.next()) {
+                    String columna = indices.getString("COLUMN_NAME");
+                    if (columna != null) {
+                        columnasPorIndice.computeIfAbsent(indices.getString("INDEX_NAME"), k -> new HashSet<>())
+                                .add(columna.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            return columnasPorIndice.containsValue(Set.of("titulo"));
+        }));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.mscatalogo.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Serialización de las respuestas.
+ *
+ * JSON sigue siendo el formato por defecto. Los servicios internos pueden pedir
+ * Accept: application/cbor o application/x-jackson-smile y reciben lo mismo en binario, sin repetir
+ * los nombres largos de los campos en cada libro de una lista (Smile) o con números binarios
+ * compactos (CBOR). Los convertidores reemplazan a los que Spring MVC agrega por su cuenta y quedan
+ * en el mismo lugar, detrás de JSON, así que un cliente que acepta cualquier tipo nunca recibe binario.
+ */
+@Configuration
+public class JacksonConfig {
+
+    // Spring Boot lo agrega a todos los ObjectMapper: reemplaza la reflexión de getters y
+    // constructores por lambdas generadas, lo que abarata serializar listas grandes de libros
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    // Se construyen con el builder de Spring Boot para tener los mismos módulos y spring.jackson.*
+    // que el JSON (fechas, Blackbird); los de Spring MVC por defecto no los tendrían
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
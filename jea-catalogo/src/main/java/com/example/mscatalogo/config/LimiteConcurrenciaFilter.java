@@ -0,0 +1,116 @@
+package com.example.mscatalogo.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Con hilos virtuales Tomcat ya no limita cuántas peticiones se atienden a la vez, y miles de ellas
+ * terminarían esperando una conexión de HikariCP hasta su timeout. Este filtro deja pasar a lo sumo
+ * unas pocas peticiones por conexión del pool; el resto espera un momento y, si sigue sin lugar,
+ * recibe un 503 inmediato para reintentar.
+ *
+ * Una respuesta asíncrona (la exportación con StreamingResponseBody) sigue leyendo de la base después
+ * de que la cadena de filtros retorna, así que su permiso se devuelve recién cuando termina.
+ */
+public class LimiteConcurrenciaFilter extends OncePerRequestFilter {
+
+    private final Semaphore permisos;
+    private final long esperaMs;
+    private final List<String> rutasExcluidas;
+
+    public LimiteConcurrenciaFilter(int maximo, long esperaMs, List<String> rutasExcluidas) {
+        this.permisos = new Semaphore(maximo, true);
+        this.esperaMs = esperaMs;
+        this.rutasExcluidas = rutasExcluidas;
+    }
+
+    // Lo que no usa la base de datos (índices en memoria, portadas, SSE) no compite por el pool
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String ruta = request.getRequestURI().substring(request.getContextPath().length());
+        // Las rutas terminadas en "/" excluyen todo lo que cuelga de ellas; el resto, solo esa ruta
+        for (String excluida : rutasExcluidas) {
+            if (excluida.endsWith("/") ? ruta.startsWith(excluida) : ruta.equals(excluida)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean adquirido;
+        try {
+            adquirido = permisos.tryAcquire(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            adquirido = false;
+        }
+        if (!adquirido) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        boolean asincrona = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new LiberarAlTerminar());
+                asincrona = true;
+            }
+        } finally {
+            if (!asincrona) {
+                permisos.release();
+            }
+        }
+    }
+
+    public int disponibles() {
+        return permisos.availablePermits();
+    }
+
+    // complete, error y timeout pueden llegar juntos: el permiso se devuelve una sola vez
+    private final class LiberarAlTerminar implements AsyncListener {
+        private final AtomicBoolean liberado = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Otro ciclo asíncrono de la misma petición: seguir escuchándolo
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void liberar() {
+            if (liberado.compareAndSet(false, true)) {
+                permisos.release();
+            }
+        }
+    }
+}
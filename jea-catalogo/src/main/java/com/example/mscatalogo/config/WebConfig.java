@@ -1,16 +0,0 @@
-package com.example.mscatalogo.config;
-
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-
-@Configuration
-public class WebConfig implements WebMvcConfigurer {
-
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry
-                .addResourceHandler("/imagenes/**")
-                .addResourceLocations("file:/C:/cursos/gestion/proyecto/Sistema-ventas-ms-master/imagenes/");
-    }
-}
@@ -1,17 +1,41 @@
 package com.example.mscatalogo.controller;
 
+import com.example.mscatalogo.dto.CambiosLibrosDto;
+import com.example.mscatalogo.dto.FacetasDto;
+import com.example.mscatalogo.dto.LoteLibrosDto;
+import com.example.mscatalogo.dto.PaginaLibrosDto;
+import com.example.mscatalogo.dto.ResultadoBusquedaDto;
+import com.example.mscatalogo.dto.ResultadoImportacionDto;
+import com.example.mscatalogo.dto.SolicitudLoteDto;
+import com.example.mscatalogo.dto.SugerenciaDto;
 import com.example.mscatalogo.entity.Categoria;
 import com.example.mscatalogo.entity.Libro;
+import com.example.mscatalogo.evento.DifusorEventosCatalogo;
+import com.example.mscatalogo.service.LibroExportacionService;
+import com.example.mscatalogo.service.LibroImportacionService;
 import com.example.mscatalogo.service.LibroService;
+import com.example.mscatalogo.service.LibroSincronizacionService;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/libros")
@@ -20,6 +44,18 @@ public class LibroController {
     @Autowired
     private LibroService libroService;
 
+    @Autowired
+    private LibroExportacionService libroExportacionService;
+
+    @Autowired
+    private LibroImportacionService libroImportacionService;
+
+    @Autowired
+    private LibroSincronizacionService libroSincronizacionService;
+
+    @Autowired
+    private DifusorEventosCatalogo difusorEventosCatalogo;
+
     // ---------------------------------------------
     // CREAR LIBRO CON PORTADA
     // ---------------------------------------------
@@ -62,6 +98,31 @@ public class LibroController {
     }
 
 
+    // ---------------------------------------------
+    // IMPORTACIÓN MASIVA (CSV / JSON)
+    // ---------------------------------------------
+    @PostMapping(value = "/importar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ResultadoImportacionDto> importarLibros(
+            @RequestParam("archivo") MultipartFile archivo,
+            @RequestParam(value = "formato", required = false) String formato
+    ) {
+        if (archivo.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (formato == null) {
+            String nombre = archivo.getOriginalFilename();
+            formato = nombre != null && nombre.toLowerCase().endsWith(".json")
+                    ? LibroImportacionService.FORMATO_JSON
+                    : LibroImportacionService.FORMATO_CSV;
+        }
+
+        try (InputStream entrada = archivo.getInputStream()) {
+            return ResponseEntity.ok(libroImportacionService.importar(entrada, formato));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     // ---------------------------------------------
     // LISTAR LIBROS
     // ---------------------------------------------
@@ -70,6 +131,96 @@ public class LibroController {
         return ResponseEntity.ok(libroService.listar());
     }
 
+    // ---------------------------------------------
+    // LISTAR LIBROS PAGINADO (CURSOR)
+    // ---------------------------------------------
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaLibrosDto> listarLibrosPaginado(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limite", required = false) Integer limite,
+            @RequestParam(value = "categoriaId", required = false) Long categoriaId,
+            @RequestParam(value = "estado", required = false) Boolean estado,
+            @RequestParam(value = "autor", required = false) String autor,
+            @RequestParam(value = "disponible", required = false) Boolean disponible
+    ) {
+        try {
+            return ResponseEntity.ok(
+                    libroService.listarPagina(cursor, limite, categoriaId, estado, autor, disponible));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // ---------------------------------------------
+    // CAMBIOS DESDE LA ÚLTIMA SINCRONIZACIÓN
+    // ---------------------------------------------
+    @GetMapping("/cambios")
+    public ResponseEntity<CambiosLibrosDto> cambios(
+            @RequestParam(value = "desde", required = false) String desde,
+            @RequestParam(value = "limite", required = false) Integer limite
+    ) {
+        try {
+            return ResponseEntity.ok(libroSincronizacionService.cambios(desde, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // ---------------------------------------------
+    // EVENTOS DEL CATÁLOGO EN VIVO (SERVER-SENT EVENTS)
+    // ---------------------------------------------
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> eventos(
+            @RequestHeader(value = "Last-Event-ID", required = false) String ultimoId) {
+        SseEmitter emitter = difusorEventosCatalogo.suscribir(ultimoId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        // Sin buffering en proxies (nginx) para que cada evento llegue apenas se envía
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+    // ---------------------------------------------
+    // EXPORTAR CATÁLOGO COMPLETO (NDJSON / CSV)
+    // ---------------------------------------------
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarLibros(
+            @RequestParam(value = "formato", defaultValue = LibroExportacionService.FORMATO_NDJSON) String formato,
+            @RequestParam(value = "updatedSince", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime actualizadoDesde,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        boolean csv = LibroExportacionService.FORMATO_CSV.equalsIgnoreCase(formato);
+        if (!csv && !LibroExportacionService.FORMATO_NDJSON.equalsIgnoreCase(formato)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        StreamingResponseBody cuerpo = salida -> {
+            OutputStream destino = gzip ? new GZIPOutputStream(salida, 8192, true) : salida;
+            libroExportacionService.exportar(formato, actualizadoDesde, destino);
+            if (gzip) {
+                ((GZIPOutputStream) destino).finish();
+            }
+        };
+
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .contentType(csv
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"libros." + (csv ? "csv" : "ndjson") + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return respuesta.body(cuerpo);
+    }
+
     // ---------------------------------------------
     // OBTENER LIBRO POR ID
     // ---------------------------------------------
@@ -80,6 +231,18 @@ public class LibroController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // ---------------------------------------------
+    // OBTENER VARIOS LIBROS POR ID O CÓDIGO
+    // ---------------------------------------------
+    @PostMapping("/lote")
+    public ResponseEntity<LoteLibrosDto> obtenerLote(@RequestBody SolicitudLoteDto solicitud) {
+        try {
+            return ResponseEntity.ok(libroService.obtenerLote(solicitud.getIds(), solicitud.getCodigos()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // ---------------------------------------------
     // ACTUALIZAR LIBRO
     // ---------------------------------------------
@@ -93,6 +256,25 @@ public class LibroController {
         }
     }
 
+    // ---------------------------------------------
+    // ACTUALIZACIÓN PARCIAL (JSON MERGE PATCH)
+    // ---------------------------------------------
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Libro> actualizarParcial(@PathVariable Long id, @RequestBody JsonNode parche) {
+        try {
+            return ResponseEntity.ok(libroService.actualizarParcial(id, parche));
+        } catch (DataIntegrityViolationException e) {
+            // Código, título o ISBN repetido, o categoría inexistente
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     // ---------------------------------------------
     // ELIMINAR LIBRO
     // ---------------------------------------------
@@ -124,6 +306,37 @@ public class LibroController {
         return ResponseEntity.ok(libroActualizado);
     }
 
+    // ---------------------------------------------
+    // PRÉSTAMO Y DEVOLUCIÓN (STOCK DISPONIBLE)
+    // ---------------------------------------------
+    @PostMapping("/{id}/reservar")
+    public ResponseEntity<Libro> reservar(@PathVariable Long id,
+                                          @RequestParam(value = "cantidad", defaultValue = "1") int cantidad) {
+        try {
+            return ResponseEntity.ok(libroService.reservar(id, cantidad));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/{id}/devolver")
+    public ResponseEntity<Libro> devolver(@PathVariable Long id,
+                                          @RequestParam(value = "cantidad", defaultValue = "1") int cantidad) {
+        try {
+            return ResponseEntity.ok(libroService.devolver(id, cantidad));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     // ---------------------------------------------
     // ACTUALIZAR LIBRO CON NUEVA PORTADA
     // ---------------------------------------------
@@ -178,6 +391,36 @@ public class LibroController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // ---------------------------------------------
+    // BÚSQUEDA DE TEXTO (TÍTULO, AUTOR, EDITORIAL, DESCRIPCIÓN)
+    // ---------------------------------------------
+    @GetMapping("/buscar")
+    public ResponseEntity<List<ResultadoBusquedaDto>> buscar(
+            @RequestParam("q") String consulta,
+            @RequestParam(value = "limite", required = false) Integer limite) {
+        return ResponseEntity.ok(libroService.buscar(consulta, limite));
+    }
+
+    // ---------------------------------------------
+    // AUTOCOMPLETADO (TÍTULO, AUTOR, ISBN)
+    // ---------------------------------------------
+    @GetMapping("/sugerir")
+    public ResponseEntity<List<SugerenciaDto>> sugerir(
+            @RequestParam("q") String texto,
+            @RequestParam(value = "limite", required = false) Integer limite) {
+        return ResponseEntity.ok(libroService.sugerir(texto, limite));
+    }
+
+    // ---------------------------------------------
+    // FACETAS (CATEGORÍA, EDITORIAL, DÉCADA, DISPONIBLES)
+    // ---------------------------------------------
+    @GetMapping("/facetas")
+    public ResponseEntity<FacetasDto> facetas(
+            @RequestParam(value = "q", required = false) String consulta,
+            @RequestParam(value = "limite", required = false) Integer limite) {
+        return ResponseEntity.ok(libroService.facetas(consulta, limite));
+    }
+
     @PostMapping
     public ResponseEntity<Libro> crearLibro(@RequestBody Libro libro) {
         try {
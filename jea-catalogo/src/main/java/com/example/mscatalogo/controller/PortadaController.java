@@ -0,0 +1,240 @@
+package com.example.mscatalogo.controller;
+
+import com.example.mscatalogo.service.PortadaService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sirve las portadas. Los nombres direccionados por contenido nunca cambian de contenido, así que
+ * se marcan como inmutables y su ETag es el propio hash, con la codificación enviada al final:
+ * los bytes de la versión br o gzip son otros y un rango de una no sirve para completar la otra.
+ * El cuerpo se envía con sendfile de Tomcat cuando está disponible y, si no, con FileChannel.transferTo.
+ */
+@RestController
+public class PortadaController {
+
+    // {variante/}ab/cd/{sha256}.{ext}
+    private static final Pattern DIRECCIONADA_POR_CONTENIDO =
+            Pattern.compile("^(?:(small|medium|large)/)?[0-9a-f]{2}/[0-9a-f]{2}/([0-9a-f]{64})\\.[a-z0-9]{1,5}$");
+
+    private static final Pattern RANGO = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    private static final Set<String> VARIANTES = Set.of(
+            PortadaService.VARIANTE_PEQUENA, PortadaService.VARIANTE_MEDIANA, PortadaService.VARIANTE_GRANDE);
+
+    private static final String CACHE_INMUTABLE = "public, max-age=31536000, immutable";
+    private static final String CACHE_LEGADO = "public, max-age=86400";
+
+    private static final String SENDFILE_SOPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARCHIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIN = "org.apache.tomcat.sendfile.end";
+
+    // Subidas a medio copiar; nunca se sirven
+    private static final String DIRECTORIO_TEMPORAL = "tmp";
+
+    private final Path raiz;
+
+    public PortadaController(@Value("${catalogo.portadas.ruta}") String ruta) {
+        this.raiz = Paths.get(ruta).toAbsolutePath().normalize();
+    }
+
+    @GetMapping("/imagenes/{*ruta}")
+    public void servir(@PathVariable("ruta") String ruta,
+                       @RequestParam(value = "tamanio", required = false) String tamanio,
+                       HttpServletRequest request,
+                       HttpServletResponse response) throws IOException {
+
+        String relativa = ruta.startsWith("/") ? ruta.substring(1) : ruta;
+        // ?tamanio=small es equivalente a /imagenes/small/{portada}, si la variante ya existe
+        if (tamanio != null && VARIANTES.contains(tamanio)) {
+            Path variante = resolver(tamanio + "/" + relativa);
+            if (variante != null && Files.isRegularFile(variante)) {
+                relativa = tamanio + "/" + relativa;
+            }
+        }
+
+        Path archivo = resolver(relativa);
+        if (archivo == null || !Files.isRegularFile(archivo)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        // Variante precomprimida junto al archivo (ej: portada.svg.br / portada.svg.gz)
+        Path enviar = archivo;
+        String codificacion = null;
+        String aceptadas = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (aceptadas != null) {
+            Path br = archivo.resolveSibling(archivo.getFileName() + ".br");
+            Path gz = archivo.resolveSibling(archivo.getFileName() + ".gz");
+            if (acepta(aceptadas, "br") && Files.isRegularFile(br)) {
+                enviar = br;
+                codificacion = "br";
+            } else if (acepta(aceptadas, "gzip") && Files.isRegularFile(gz)) {
+                enviar = gz;
+                codificacion = "gzip";
+            }
+        }
+
+        Matcher contenido = DIRECCIONADA_POR_CONTENIDO.matcher(relativa);
+        boolean inmutable = contenido.matches();
+        String sufijo = codificacion != null ? "-" + codificacion : "";
+        String etag = inmutable
+                ? "\"" + contenido.group(2) + (contenido.group(1) != null ? "-" + contenido.group(1) : "") + sufijo + "\""
+                : "W/\"" + Files.size(archivo) + "-" + Files.getLastModifiedTime(archivo).toMillis() + sufijo + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, inmutable ? CACHE_INMUTABLE : CACHE_LEGADO);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (coincideEtag(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        MediaType tipo = MediaTypeFactory.getMediaType(archivo.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        response.setContentType(tipo.toString());
+        if (codificacion != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, codificacion);
+        }
+
+        long longitud = Files.size(enviar);
+        long inicio = 0;
+        long fin = longitud - 1;
+
+        // Solo rangos simples; con If-Range que no coincide se devuelve el archivo completo.
+        // If-Range compara en forma estricta: un ETag débil nunca coincide
+        String rango = request.getHeader(HttpHeaders.RANGE);
+        String siRango = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rango != null && (siRango == null || (inmutable && siRango.equals(etag)))) {
+            Matcher m = RANGO.matcher(rango.trim());
+            if (m.matches() && !(m.group(1).isEmpty() && m.group(2).isEmpty())) {
+                if (m.group(1).isEmpty()) {
+                    // bytes=-N: los últimos N bytes
+                    inicio = Math.max(0, longitud - posicionRango(m.group(2)));
+                } else {
+                    inicio = posicionRango(m.group(1));
+                    if (!m.group(2).isEmpty()) {
+                        fin = Math.min(fin, posicionRango(m.group(2)));
+                    }
+                }
+                if (inicio > fin || inicio >= longitud) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + longitud);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + inicio + "-" + fin + "/" + longitud);
+            }
+        }
+
+        long cantidad = fin - inicio + 1;
+        response.setContentLengthLong(cantidad);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SOPORTADO))) {
+            // Tomcat envía el archivo directo desde el kernel al socket al terminar la petición
+            request.setAttribute(SENDFILE_ARCHIVO, enviar.toString());
+            request.setAttribute(SENDFILE_INICIO, inicio);
+            request.setAttribute(SENDFILE_FIN, fin + 1);
+            return;
+        }
+
+        try (FileChannel canal = FileChannel.open(enviar, StandardOpenOption.READ)) {
+            WritableByteChannel salida = Channels.newChannel(response.getOutputStream());
+            long posicion = inicio;
+            long restante = cantidad;
+            while (restante > 0) {
+                long enviados = canal.transferTo(posicion, restante, salida);
+                if (enviados <= 0) {
+                    break;
+                }
+                posicion += enviados;
+                restante -= enviados;
+            }
+        }
+    }
+
+    // Evita salir de la raíz con rutas como ../../etc/passwd
+    private Path resolver(String relativa) {
+        Path archivo = raiz.resolve(relativa).normalize();
+        return archivo.startsWith(raiz) && !archivo.startsWith(raiz.resolve(DIRECTORIO_TEMPORAL)) ? archivo : null;
+    }
+
+    // Solo dígitos (RANGO); una posición que no entra en un long está más allá de cualquier archivo
+    private static long posicionRango(String digitos) {
+        try {
+            return Long.parseLong(digitos);
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    // La codificación figura en Accept-Encoding (o vía "*") sin q=0
+    private static boolean acepta(String aceptadas, String codificacion) {
+        Boolean comodin = null;
+        for (String parte : aceptadas.split(",")) {
+            String[] campos = parte.split(";");
+            String nombre = campos[0].trim();
+            boolean explicita = nombre.equalsIgnoreCase(codificacion);
+            if (!explicita && !nombre.equals("*")) {
+                continue;
+            }
+            boolean aceptada = true;
+            for (int i = 1; i < campos.length; i++) {
+                String parametro = campos[i].trim();
+                if (parametro.startsWith("q=") || parametro.startsWith("Q=")) {
+                    try {
+                        aceptada = Double.parseDouble(parametro.substring(2).trim()) > 0;
+                    } catch (NumberFormatException e) {
+                        aceptada = false;
+                    }
+                }
+            }
+            if (explicita) {
+                return aceptada;
+            }
+            comodin = aceptada;
+        }
+        return Boolean.TRUE.equals(comodin);
+    }
+
+    private boolean coincideEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String sinDebil = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.equals("*") || valor.equals(etag) || valor.equals(sinDebil)
+                    || (valor.startsWith("W/") && valor.substring(2).equals(sinDebil))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
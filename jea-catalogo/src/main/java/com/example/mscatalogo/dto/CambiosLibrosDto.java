@@ -0,0 +1,66 @@
+package com.example.mscatalogo.dto;
+
+import com.example.mscatalogo.entity.Libro;
+import com.example.mscatalogo.entity.LibroEliminado;
+
+import java.util.List;
+
+public class CambiosLibrosDto {
+    private List<Libro> actualizados; // creados o modificados
+    private List<LibroEliminado> eliminados;
+    private String siguienteToken; // se envía como ?desde= en la próxima consulta
+    private boolean hayMas;
+    private boolean reiniciar; // la marca del cliente es más vieja que la retención: descartar la copia local
+
+    public CambiosLibrosDto() {
+    }
+
+    public CambiosLibrosDto(List<Libro> actualizados, List<LibroEliminado> eliminados,
+                            String siguienteToken, boolean hayMas, boolean reiniciar) {
+        this.actualizados = actualizados;
+        this.eliminados = eliminados;
+        this.siguienteToken = siguienteToken;
+        this.hayMas = hayMas;
+        this.reiniciar = reiniciar;
+    }
+
+    public List<Libro> getActualizados() {
+        return actualizados;
+    }
+
+    public void setActualizados(List<Libro> actualizados) {
+        this.actualizados = actualizados;
+    }
+
+    public List<LibroEliminado> getEliminados() {
+        return eliminados;
+    }
+
+    public void setEliminados(List<LibroEliminado> eliminados) {
+        this.eliminados = eliminados;
+    }
+
+    public String getSiguienteToken() {
+        return siguienteToken;
+    }
+
+    public void setSiguienteToken(String siguienteToken) {
+        this.siguienteToken = siguienteToken;
+    }
+
+    public boolean isHayMas() {
+        return hayMas;
+    }
+
+    public void setHayMas(boolean hayMas) {
+        this.hayMas = hayMas;
+    }
+
+    public boolean isReiniciar() {
+        return reiniciar;
+    }
+
+    public void setReiniciar(boolean reiniciar) {
+        this.reiniciar = reiniciar;
+    }
+}
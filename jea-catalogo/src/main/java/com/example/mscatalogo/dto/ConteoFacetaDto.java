@@ -0,0 +1,40 @@
+package com.example.mscatalogo.dto;
+
+public class ConteoFacetaDto {
+    private String valor; // lo que se envía como filtro (ej: id de categoría, 1990)
+    private String etiqueta; // lo que se muestra (ej: nombre de categoría, 1990-1999)
+    private int cantidad;
+
+    public ConteoFacetaDto() {
+    }
+
+    public ConteoFacetaDto(String valor, String etiqueta, int cantidad) {
+        this.valor = valor;
+        this.etiqueta = etiqueta;
+        this.cantidad = cantidad;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+
+    public void setValor(String valor) {
+        this.valor = valor;
+    }
+
+    public String getEtiqueta() {
+        return etiqueta;
+    }
+
+    public void setEtiqueta(String etiqueta) {
+        this.etiqueta = etiqueta;
+    }
+
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(int cantidad) {
+        this.cantidad = cantidad;
+    }
+}
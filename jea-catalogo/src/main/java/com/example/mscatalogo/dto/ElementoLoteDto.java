@@ -0,0 +1,42 @@
+package com.example.mscatalogo.dto;
+
+import com.example.mscatalogo.entity.Libro;
+
+public class ElementoLoteDto {
+    private String clave; // el id o código tal como se pidió
+    private boolean encontrado;
+    private Libro libro; // null si no se encontró
+
+    public ElementoLoteDto() {
+    }
+
+    public ElementoLoteDto(String clave, Libro libro) {
+        this.clave = clave;
+        this.encontrado = libro != null;
+        this.libro = libro;
+    }
+
+    public String getClave() {
+        return clave;
+    }
+
+    public void setClave(String clave) {
+        this.clave = clave;
+    }
+
+    public boolean isEncontrado() {
+        return encontrado;
+    }
+
+    public void setEncontrado(boolean encontrado) {
+        this.encontrado = encontrado;
+    }
+
+    public Libro getLibro() {
+        return libro;
+    }
+
+    public void setLibro(Libro libro) {
+        this.libro = libro;
+    }
+}
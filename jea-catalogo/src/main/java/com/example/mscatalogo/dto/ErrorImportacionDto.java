@@ -0,0 +1,40 @@
+package com.example.mscatalogo.dto;
+
+public class ErrorImportacionDto {
+    private long fila;
+    private String codigo;
+    private String mensaje;
+
+    public ErrorImportacionDto() {
+    }
+
+    public ErrorImportacionDto(long fila, String codigo, String mensaje) {
+        this.fila = fila;
+        this.codigo = codigo;
+        this.mensaje = mensaje;
+    }
+
+    public long getFila() {
+        return fila;
+    }
+
+    public void setFila(long fila) {
+        this.fila = fila;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public void setCodigo(String codigo) {
+        this.codigo = codigo;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.mscatalogo.dto;
+
+/**
+ * Aviso compacto del feed /libros/eventos: qué cambió y el stock, sin el libro completo.
+ * Quien necesite el resto lo pide por id.
+ */
+public class EventoCatalogoDto {
+    public static final String ENTIDAD_LIBRO = "libro";
+    public static final String ENTIDAD_CATEGORIA = "categoria";
+    // Avisos sobre el propio feed, no sobre un libro o una categoría
+    public static final String ENTIDAD_FLUJO = "flujo";
+    // El cliente perdió eventos y debe volver a sincronizar (ej: con /libros/cambios)
+    public static final String ACCION_REINICIAR = "REINICIAR";
+
+    private long secuencia;
+    private String entidad;
+    private String accion;
+    private Long id;
+    private String codigo;
+    private Integer stockTotal;
+    private Integer stockDisponible;
+    private Boolean estado;
+
+    public EventoCatalogoDto() {
+    }
+
+    public EventoCatalogoDto(String entidad, String accion, Long id, String codigo,
+                             Integer stockTotal, Integer stockDisponible, Boolean estado) {
+        this.entidad = entidad;
+        this.accion = accion;
+        this.id = id;
+        this.codigo = codigo;
+        this.stockTotal = stockTotal;
+        this.stockDisponible = stockDisponible;
+        this.estado = estado;
+    }
+
+    public long getSecuencia() {
+        return secuencia;
+    }
+
+    public void setSecuencia(long secuencia) {
+        this.secuencia = secuencia;
+    }
+
+    public String getEntidad() {
+        return entidad;
+    }
+
+    public void setEntidad(String entidad) {
+        this.entidad = entidad;
+    }
+
+    public String getAccion() {
+        return accion;
+    }
+
+    public void setAccion(String accion) {
+        this.accion = accion;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public void setCodigo(String codigo) {
+        this.codigo = codigo;
+    }
+
+    public Integer getStockTotal() {
+        return stockTotal;
+    }
+
+    public void setStockTotal(Integer stockTotal) {
+        this.stockTotal = stockTotal;
+    }
+
+    public Integer getStockDisponible() {
+        return stockDisponible;
+    }
+
+    public void setStockDisponible(Integer stockDisponible) {
+        this.stockDisponible = stockDisponible;
+    }
+
+    public Boolean getEstado() {
+        return estado;
+    }
+
+    public void setEstado(Boolean estado) {
+        this.estado = estado;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.mscatalogo.dto;
+
+import java.util.List;
+
+public class FacetasDto {
+    private int total;
+    private int disponibles; // con stock disponible ahora
+    private List<ConteoFacetaDto> categorias;
+    private List<ConteoFacetaDto> editoriales;
+    private List<ConteoFacetaDto> decadas;
+
+    public FacetasDto() {
+    }
+
+    public FacetasDto(int total, int disponibles, List<ConteoFacetaDto> categorias,
+                      List<ConteoFacetaDto> editoriales, List<ConteoFacetaDto> decadas) {
+        this.total = total;
+        this.disponibles = disponibles;
+        this.categorias = categorias;
+        this.editoriales = editoriales;
+        this.decadas = decadas;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getDisponibles() {
+        return disponibles;
+    }
+
+    public void setDisponibles(int disponibles) {
+        this.disponibles = disponibles;
+    }
+
+    public List<ConteoFacetaDto> getCategorias() {
+        return categorias;
+    }
+
+    public void setCategorias(List<ConteoFacetaDto> categorias) {
+        this.categorias = categorias;
+    }
+
+    public List<ConteoFacetaDto> getEditoriales() {
+        return editoriales;
+    }
+
+    public void setEditoriales(List<ConteoFacetaDto> editoriales) {
+        this.editoriales = editoriales;
+    }
+
+    public List<ConteoFacetaDto> getDecadas() {
+        return decadas;
+    }
+
+    public void setDecadas(List<ConteoFacetaDto> decadas) {
+        this.decadas = decadas;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.mscatalogo.dto;
+
+import java.util.List;
+
+public class LoteLibrosDto {
+    private List<ElementoLoteDto> porId; // en el mismo orden que SolicitudLoteDto.ids
+    private List<ElementoLoteDto> porCodigo; // en el mismo orden que SolicitudLoteDto.codigos
+    private int faltantes;
+
+    public LoteLibrosDto() {
+    }
+
+    public LoteLibrosDto(List<ElementoLoteDto> porId, List<ElementoLoteDto> porCodigo) {
+        this.porId = porId;
+        this.porCodigo = porCodigo;
+        this.faltantes = (int) (porId.stream().filter(e -> !e.isEncontrado()).count()
+                + porCodigo.stream().filter(e -> !e.isEncontrado()).count());
+    }
+
+    public List<ElementoLoteDto> getPorId() {
+        return porId;
+    }
+
+    public void setPorId(List<ElementoLoteDto> porId) {
+        this.porId = porId;
+    }
+
+    public List<ElementoLoteDto> getPorCodigo() {
+        return porCodigo;
+    }
+
+    public void setPorCodigo(List<ElementoLoteDto> porCodigo) {
+        this.porCodigo = porCodigo;
+    }
+
+    public int getFaltantes() {
+        return faltantes;
+    }
+
+    public void setFaltantes(int faltantes) {
+        this.faltantes = faltantes;
+    }
+}
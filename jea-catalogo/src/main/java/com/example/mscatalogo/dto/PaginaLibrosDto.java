@@ -0,0 +1,54 @@
+package com.example.mscatalogo.dto;
+
+import com.example.mscatalogo.entity.Libro;
+
+import java.util.List;
+
+public class PaginaLibrosDto {
+    private List<Libro> contenido;
+    private int tamanio;
+    private boolean hayMas;
+    private String siguienteCursor; // null cuando no hay más páginas
+
+    public PaginaLibrosDto() {
+    }
+
+    public PaginaLibrosDto(List<Libro> contenido, boolean hayMas, String siguienteCursor) {
+        this.contenido = contenido;
+        this.tamanio = contenido.size();
+        this.hayMas = hayMas;
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public List<Libro> getContenido() {
+        return contenido;
+    }
+
+    public void setContenido(List<Libro> contenido) {
+        this.contenido = contenido;
+    }
+
+    public int getTamanio() {
+        return tamanio;
+    }
+
+    public void setTamanio(int tamanio) {
+        this.tamanio = tamanio;
+    }
+
+    public boolean isHayMas() {
+        return hayMas;
+    }
+
+    public void setHayMas(boolean hayMas) {
+        this.hayMas = hayMas;
+    }
+
+    public String getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    public void setSiguienteCursor(String siguienteCursor) {
+        this.siguienteCursor = siguienteCursor;
+    }
+}
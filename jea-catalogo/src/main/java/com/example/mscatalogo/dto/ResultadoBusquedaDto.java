@@ -0,0 +1,70 @@
+package com.example.mscatalogo.dto;
+
+public class ResultadoBusquedaDto {
+    private Long id;
+    private String codigo;
+    private String titulo;
+    private String autor;
+    private String editorial;
+    private double puntaje;
+
+    public ResultadoBusquedaDto() {
+    }
+
+    public ResultadoBusquedaDto(Long id, String codigo, String titulo, String autor, String editorial, double puntaje) {
+        this.id = id;
+        this.codigo = codigo;
+        this.titulo = titulo;
+        this.autor = autor;
+        this.editorial = editorial;
+        this.puntaje = puntaje;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public void setCodigo(String codigo) {
+        this.codigo = codigo;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public String getAutor() {
+        return autor;
+    }
+
+    public void setAutor(String autor) {
+        this.autor = autor;
+    }
+
+    public String getEditorial() {
+        return editorial;
+    }
+
+    public void setEditorial(String editorial) {
+        this.editorial = editorial;
+    }
+
+    public double getPuntaje() {
+        return puntaje;
+    }
+
+    public void setPuntaje(double puntaje) {
+        this.puntaje = puntaje;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.mscatalogo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ResultadoImportacionDto {
+    private long procesadas;
+    private long insertadas;
+    private long rechazadas;
+    private long milisegundos;
+    private List<ErrorImportacionDto> errores = new ArrayList<>(); // solo los primeros, ver rechazadas
+
+    public long getProcesadas() {
+        return procesadas;
+    }
+
+    public void setProcesadas(long procesadas) {
+        this.procesadas = procesadas;
+    }
+
+    public long getInsertadas() {
+        return insertadas;
+    }
+
+    public void setInsertadas(long insertadas) {
+        this.insertadas = insertadas;
+    }
+
+    public long getRechazadas() {
+        return rechazadas;
+    }
+
+    public void setRechazadas(long rechazadas) {
+        this.rechazadas = rechazadas;
+    }
+
+    public long getMilisegundos() {
+        return milisegundos;
+    }
+
+    public void setMilisegundos(long milisegundos) {
+        this.milisegundos = milisegundos;
+    }
+
+    public List<ErrorImportacionDto> getErrores() {
+        return errores;
+    }
+
+    public void setErrores(List<ErrorImportacionDto> errores) {
+        this.errores = errores;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.mscatalogo.dto;
+
+import java.util.List;
+
+public class SolicitudLoteDto {
+    private List<Long> ids;
+    private List<String> codigos;
+
+    public SolicitudLoteDto() {
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public List<String> getCodigos() {
+        return codigos;
+    }
+
+    public void setCodigos(List<String> codigos) {
+        this.codigos = codigos;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.mscatalogo.dto;
+
+public class SugerenciaDto {
+    private String texto;
+    private String tipo; // TITULO, AUTOR o ISBN
+    private Long libroId; // null para autores, que agrupan varios libros
+    private int peso;
+
+    public SugerenciaDto() {
+    }
+
+    public SugerenciaDto(String texto, String tipo, Long libroId, int peso) {
+        this.texto = texto;
+        this.tipo = tipo;
+        this.libroId = libroId;
+        this.peso = peso;
+    }
+
+    public String getTexto() {
+        return texto;
+    }
+
+    public void setTexto(String texto) {
+        this.texto = texto;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public Long getLibroId() {
+        return libroId;
+    }
+
+    public void setLibroId(Long libroId) {
+        this.libroId = libroId;
+    }
+
+    public int getPeso() {
+        return peso;
+    }
+
+    public void setPeso(int peso) {
+        this.peso = peso;
+    }
+}
@@ -2,10 +2,18 @@ package com.example.mscatalogo.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_libro_categoria", columnList = "categoria_id, id"),
+        // Recorrido de /libros/cambios: fecha_actualizacion > marca, desempate por id
+        @Index(name = "idx_libro_fecha_actualizacion", columnList = "fecha_actualizacion, id")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+// El UPDATE de save() incluye solo las columnas que cambiaron, no la fila completa
+@DynamicUpdate
 public class Libro {
 
     @Id
@@ -15,7 +23,7 @@ public class Libro {
     @Column(nullable = false, unique = true)
     private String codigo;
 
-    @Column(nullable = false)
+    @Column(nullable = false, unique = true)
     private String titulo;
 
     private String descripcion;
@@ -51,6 +59,9 @@ public class Libro {
     // Imagen de portada del libro
     private String portada;
 
+    // Tamaños ya generados de la portada, separados por coma (ej: "small,medium,large")
+    private String portadaVariantes;
+
     @PrePersist
     protected void onCreate() {
         fechaCreacion = LocalDateTime.now();
@@ -206,4 +217,12 @@ public class Libro {
     public void setPortada(String portada) {
         this.portada = portada;
     }
+
+    public String getPortadaVariantes() {
+        return portadaVariantes;
+    }
+
+    public void setPortadaVariantes(String portadaVariantes) {
+        this.portadaVariantes = portadaVariantes;
+    }
 }
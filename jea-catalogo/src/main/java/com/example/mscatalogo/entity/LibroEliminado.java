@@ -0,0 +1,73 @@
+package com.example.mscatalogo.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marca de borrado de un libro. La sincronización incremental (/libros/cambios) la entrega a los
+ * clientes que guardan una copia del catálogo, que de otro modo nunca se enterarían del borrado.
+ */
+@Entity
+@Table(name = "libro_eliminado", indexes = {
+        @Index(name = "idx_libro_eliminado_fecha", columnList = "fecha_eliminacion, id")
+})
+public class LibroEliminado {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long libroId;
+
+    private String codigo;
+
+    @Column(nullable = false)
+    private LocalDateTime fechaEliminacion;
+
+    public LibroEliminado() {
+    }
+
+    public LibroEliminado(Long libroId, String codigo) {
+        this.libroId = libroId;
+        this.codigo = codigo;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        fechaEliminacion = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getLibroId() {
+        return libroId;
+    }
+
+    public void setLibroId(Long libroId) {
+        this.libroId = libroId;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public void setCodigo(String codigo) {
+        this.codigo = codigo;
+    }
+
+    public LocalDateTime getFechaEliminacion() {
+        return fechaEliminacion;
+    }
+
+    public void setFechaEliminacion(LocalDateTime fechaEliminacion) {
+        this.fechaEliminacion = fechaEliminacion;
+    }
+}
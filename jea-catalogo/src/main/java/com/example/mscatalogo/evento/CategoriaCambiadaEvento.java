@@ -0,0 +1,45 @@
+package com.example.mscatalogo.evento;
+
+import com.example.mscatalogo.entity.Categoria;
+
+/**
+ * Se publica desde CategoriaServiceImpl después de cada escritura, igual que LibroCambiadoEvento.
+ */
+public class CategoriaCambiadaEvento {
+
+    public enum Tipo { CREADA, ACTUALIZADA, ELIMINADA }
+
+    private final Tipo tipo;
+    private final Long categoriaId;
+    private final Categoria categoria; // null cuando la categoría fue eliminada
+
+    private CategoriaCambiadaEvento(Tipo tipo, Long categoriaId, Categoria categoria) {
+        this.tipo = tipo;
+        this.categoriaId = categoriaId;
+        this.categoria = categoria;
+    }
+
+    public static CategoriaCambiadaEvento creada(Categoria categoria) {
+        return new CategoriaCambiadaEvento(Tipo.CREADA, categoria.getId(), categoria);
+    }
+
+    public static CategoriaCambiadaEvento actualizada(Categoria categoria) {
+        return new CategoriaCambiadaEvento(Tipo.ACTUALIZADA, categoria.getId(), categoria);
+    }
+
+    public static CategoriaCambiadaEvento eliminada(Long categoriaId) {
+        return new CategoriaCambiadaEvento(Tipo.ELIMINADA, categoriaId, null);
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Long getCategoriaId() {
+        return categoriaId;
+    }
+
+    public Categoria getCategoria() {
+        return categoria;
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.mscatalogo.evento;
+
+import com.example.mscatalogo.config.AsyncConfig;
+import com.example.mscatalogo.dto.EventoCatalogoDto;
+import com.example.mscatalogo.entity.Libro;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reparte los cambios del catálogo a los suscriptores de /libros/eventos (Server-Sent Events).
+ *
+ * Publicar nunca espera a la red: cada suscriptor tiene una cola acotada y un hilo de envío solo
+ * mientras tiene eventos pendientes. Si la cola se llena el cliente es demasiado lento y se lo
+ * desconecta; al reconectar con Last-Event-ID recibe lo que se perdió desde el historial reciente,
+ * o un evento REINICIAR si ya no está.
+ *
+ * La secuencia y el historial son de esta instancia y se pierden al reiniciar, así que el id de cada
+ * evento lleva delante la época de la instancia ("época-secuencia"). Un id de otra época, o de una
+ * secuencia que esta instancia todavía no alcanzó, también recibe REINICIAR.
+ */
+@Component
+public class DifusorEventosCatalogo {
+
+    private static final Logger log = LoggerFactory.getLogger(DifusorEventosCatalogo.class);
+
+    // Marca en la cola de un suscriptor para enviar un comentario de latido
+    private static final EventoCatalogoDto LATIDO = new EventoCatalogoDto();
+
+    private final TaskExecutor executor;
+    private final int maxSuscriptores;
+    private final int capacidadCola;
+    private final int capacidadHistorial;
+    private final long timeoutMs;
+    private final String epoca;
+
+    private final Set<Suscriptor> suscriptores = ConcurrentHashMap.newKeySet();
+
+    // Secuencia, historial y reparto van bajo el mismo lock: un suscriptor nuevo recibe el historial
+    // y después los eventos en vivo, sin huecos ni repetidos
+    private final Object lock = new Object();
+    private final ArrayDeque<EventoCatalogoDto> historial = new ArrayDeque<>();
+    private long secuencia;
+
+    public DifusorEventosCatalogo(@Qualifier(AsyncConfig.EVENTOS_EXECUTOR) TaskExecutor executor,
+                                  @Value("${catalogo.eventos.max-suscriptores:200}") int maxSuscriptores,
+                                  @Value("${catalogo.eventos.cola:1024}") int capacidadCola,
+                                  @Value("${catalogo.eventos.historial:4096}") int capacidadHistorial,
+                                  @Value("${catalogo.eventos.timeout-ms:1800000}") long timeoutMs) {
+        this.executor = executor;
+        this.maxSuscriptores = maxSuscriptores;
+        this.capacidadCola = capacidadCola;
+        this.capacidadHistorial = capacidadHistorial;
+        this.timeoutMs = timeoutMs;
+        // Distinta en cada arranque y entre instancias que arrancan a la vez
+        this.epoca = Long.toString(System.currentTimeMillis(), 36) + Integer.toString(new Random().nextInt(1296), 36);
+    }
+
+    /**
+     * Registra un suscriptor nuevo, con el Last-Event-ID del cliente si reconecta.
+     * Devuelve null si ya se alcanzó el máximo de conexiones.
+     */
+    public SseEmitter suscribir(String ultimoId) {
+        if (suscriptores.size() >= maxSuscriptores) {
+            return null;
+        }
+        Suscriptor suscriptor = new Suscriptor(crearEmitter(), capacidadCola);
+        suscriptor.emitter.onCompletion(() -> suscriptores.remove(suscriptor));
+        suscriptor.emitter.onTimeout(() -> suscriptores.remove(suscriptor));
+        suscriptor.emitter.onError(e -> suscriptores.remove(suscriptor));
+
+        synchronized (lock) {
+            if (ultimoId != null && !ultimoId.isBlank()) {
+                reponer(suscriptor, ultimoId.trim());
+            }
+            suscriptores.add(suscriptor);
+        }
+        programar(suscriptor);
+        return suscriptor.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarLibro(LibroCambiadoEvento evento) {
+        Libro libro = evento.getLibro();
+        publicar(libro == null
+                ? new EventoCatalogoDto(EventoCatalogoDto.ENTIDAD_LIBRO, evento.getTipo().name(),
+                        evento.getLibroId(), evento.getCodigoAnterior(), null, null, null)
+                : new EventoCatalogoDto(EventoCatalogoDto.ENTIDAD_LIBRO, evento.getTipo().name(),
+                        libro.getId(), libro.getCodigo(), libro.getStockTotal(), libro.getStockDisponible(),
+                        libro.isEstado()));
+    }
+
+    @EventListener
+    public void alCambiarCategoria(CategoriaCambiadaEvento evento) {
+        publicar(new EventoCatalogoDto(EventoCatalogoDto.ENTIDAD_CATEGORIA, evento.getTipo().name(),
+                evento.getCategoriaId(), null, null, null,
+                evento.getCategoria() == null ? null : evento.getCategoria().isEstado()));
+    }
+
+    // Comentario periódico: mantiene viva la conexión en proxies y detecta clientes que se fueron
+    @Scheduled(fixedDelayString = "${catalogo.eventos.latido-ms:15000}")
+    public void latido() {
+        for (Suscriptor suscriptor : suscriptores) {
+            encolar(suscriptor, LATIDO);
+        }
+    }
+
+    private void publicar(EventoCatalogoDto evento) {
+        synchronized (lock) {
+            evento.setSecuencia(++secuencia);
+            historial.addLast(evento);
+            if (historial.size() > capacidadHistorial) {
+                historial.removeFirst();
+            }
+            for (Suscriptor suscriptor : suscriptores) {
+                encolar(suscriptor, evento);
+            }
+        }
+    }
+
+    // Lo que el cliente se perdió desde ultimoId, si el historial todavía lo tiene
+    private void reponer(Suscriptor suscriptor, String ultimoId) {
+        long ultimaSecuencia = secuenciaDeEstaEpoca(ultimoId);
+        if (ultimaSecuencia == secuencia) {
+            return;
+        }
+        EventoCatalogoDto primero = historial.peekFirst();
+        if (ultimaSecuencia < 0 || ultimaSecuencia > secuencia || primero == null
+                || primero.getSecuencia() > ultimaSecuencia + 1 || secuencia - ultimaSecuencia > capacidadCola) {
+            EventoCatalogoDto reiniciar = new EventoCatalogoDto(EventoCatalogoDto.ENTIDAD_FLUJO,
+                    EventoCatalogoDto.ACCION_REINICIAR, null, null, null, null, null);
+            reiniciar.setSecuencia(secuencia);
+            suscriptor.cola.offer(reiniciar);
+            return;
+        }
+        for (EventoCatalogoDto evento : historial) {
+            if (evento.getSecuencia() > ultimaSecuencia) {
+                suscriptor.cola.offer(evento);
+            }
+        }
+    }
+
+    // Secuencia del id si es de esta época; -1 si es de otra o no se entiende
+    private long secuenciaDeEstaEpoca(String id) {
+        int separador = id.lastIndexOf('-');
+        if (separador < 0 || !id.substring(0, separador).equals(epoca)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(id.substring(separador + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    SseEmitter crearEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void encolar(Suscriptor suscriptor, EventoCatalogoDto evento) {
+        if (suscriptor.cerrado) {
+            return;
+        }
+        if (!suscriptor.cola.offer(evento)) {
+            // Consumidor lento: se lo desconecta en lugar de acumular memoria o frenar a los demás
+            log.warn("Suscriptor de eventos desconectado por no consumir a tiempo");
+            suscriptor.cerrado = true;
+            suscriptor.cola.clear();
+            suscriptores.remove(suscriptor);
+        }
+        programar(suscriptor);
+    }
+
+    private void programar(Suscriptor suscriptor) {
+        if (suscriptor.enviando.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> drenar(suscriptor));
+            } catch (TaskRejectedException e) {
+                // Todos los hilos de envío ocupados con clientes bloqueados: este también se descarta
+                suscriptor.cerrado = true;
+                suscriptores.remove(suscriptor);
+            }
+        }
+    }
+
+    private void drenar(Suscriptor suscriptor) {
+        try {
+            do {
+                if (suscriptor.cerrado) {
+                    suscriptor.emitter.complete();
+                    return;
+                }
+                EventoCatalogoDto evento;
+                while (!suscriptor.cerrado && (evento = suscriptor.cola.poll()) != null) {
+                    if (evento == LATIDO) {
+                        suscriptor.emitter.send(SseEmitter.event().comment("latido"));
+                    } else {
+                        suscriptor.emitter.send(SseEmitter.event()
+                                .id(epoca + "-" + evento.getSecuencia())
+                                .name(evento.getEntidad())
+                                .data(evento, MediaType.APPLICATION_JSON));
+                    }
+                }
+                suscriptor.enviando.set(false);
+                // Pudo llegar algo entre el último poll y liberar la marca
+            } while ((!suscriptor.cola.isEmpty() || suscriptor.cerrado)
+                    && suscriptor.enviando.compareAndSet(false, true));
+        } catch (IOException | IllegalStateException e) {
+            // El cliente cerró la conexión
+            suscriptor.cerrado = true;
+            suscriptores.remove(suscriptor);
+            suscriptor.emitter.completeWithError(e);
+        }
+    }
+
+    private static final class Suscriptor {
+        private final SseEmitter emitter;
+        private final BlockingQueue<EventoCatalogoDto> cola;
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private volatile boolean cerrado;
+
+        private Suscriptor(SseEmitter emitter, int capacidadCola) {
+            this.emitter = emitter;
+            this.cola = new ArrayBlockingQueue<>(capacidadCola);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.mscatalogo.evento;
+
+import com.example.mscatalogo.entity.Libro;
+
+/**
+ * Se publica desde LibroServiceImpl después de cada escritura, para que las estructuras en memoria
+ * (índices, cachés) se mantengan al día sin que el servicio tenga que conocerlas.
+ *
+ * Los oyentes usan @TransactionalEventListener: si se publica dentro de una transacción (eliminar)
+ * lo reciben recién al confirmarse, y nunca si se revierte; fuera de una transacción, en el acto.
+ */
+public class LibroCambiadoEvento {
+
+    public enum Tipo { CREADO, ACTUALIZADO, ELIMINADO }
+
+    private final Tipo tipo;
+    private final Long libroId;
+    private final Libro libro; // null cuando el libro fue eliminado
+    private final String codigoAnterior; // código antes del cambio, puede ser igual al actual
+
+    private LibroCambiadoEvento(Tipo tipo, Long libroId, Libro libro, String codigoAnterior) {
+        this.tipo = tipo;
+        this.libroId = libroId;
+        this.libro = libro;
+        this.codigoAnterior = codigoAnterior;
+    }
+
+    public static LibroCambiadoEvento creado(Libro libro) {
+        return new LibroCambiadoEvento(Tipo.CREADO, libro.getId(), libro, null);
+    }
+
+    public static LibroCambiadoEvento actualizado(Libro libro) {
+        return new LibroCambiadoEvento(Tipo.ACTUALIZADO, libro.getId(), libro, libro.getCodigo());
+    }
+
+    public static LibroCambiadoEvento actualizado(Libro libro, String codigoAnterior) {
+        return new LibroCambiadoEvento(Tipo.ACTUALIZADO, libro.getId(), libro, codigoAnterior);
+    }
+
+    public static LibroCambiadoEvento eliminado(Long libroId, String codigo) {
+        return new LibroCambiadoEvento(Tipo.ELIMINADO, libroId, null, codigo);
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Long getLibroId() {
+        return libroId;
+    }
+
+    public Libro getLibro() {
+        return libro;
+    }
+
+    public String getCodigoAnterior() {
+        return codigoAnterior;
+    }
+}
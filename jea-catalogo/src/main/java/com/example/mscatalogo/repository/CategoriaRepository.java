@@ -3,8 +3,15 @@ package com.example.mscatalogo.repository;
 
 import com.example.mscatalogo.entity.Categoria;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface CategoriaRepository extends JpaRepository<Categoria, Long> {
+
+    @Query("SELECT c.id FROM Categoria c")
+    List<Long> findAllIds();
+
 }
\ No newline at end of file
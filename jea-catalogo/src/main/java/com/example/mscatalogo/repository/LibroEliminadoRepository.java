@@ -0,0 +1,33 @@
+package com.example.mscatalogo.repository;
+
+import com.example.mscatalogo.entity.LibroEliminado;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LibroEliminadoRepository extends JpaRepository<LibroEliminado, Long> {
+
+    // Mismo recorrido por (fecha, id) que LibroRepository.buscarCambios
+    @Query("SELECT e FROM LibroEliminado e " +
+            "WHERE (e.fechaEliminacion > :fecha OR (e.fechaEliminacion = :fecha AND e.id > :ultimoId)) " +
+            "AND e.fechaEliminacion <= :hasta " +
+            "ORDER BY e.fechaEliminacion ASC, e.id ASC")
+    List<LibroEliminado> buscarCambios(@Param("fecha") LocalDateTime fecha,
+                                       @Param("ultimoId") Long ultimoId,
+                                       @Param("hasta") LocalDateTime hasta,
+                                       Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM LibroEliminado e WHERE e.fechaEliminacion < :limite")
+    int borrarAnterioresA(@Param("limite") LocalDateTime limite);
+
+}
@@ -1,18 +1,148 @@
 package com.example.mscatalogo.repository;
 
 import com.example.mscatalogo.entity.Libro;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface LibroRepository extends JpaRepository<Libro, Long> {
+public interface LibroRepository extends JpaRepository<Libro, Long>, LibroRepositoryCustom {
 
-    boolean existsByCodigo(String codigo);
+    // Todas las lecturas que terminan serializadas traen la categoría en la misma consulta;
+    // si no, Jackson inicializa el proxy perezoso de cada libro con un SELECT aparte (N+1).
+    @Override
+    @EntityGraph(attributePaths = "categoria")
+    List<Libro> findAll();
 
-    boolean existsByTitulo(String titulo);
+    // Confirmación de duplicados en una sola consulta cuando FiltroDuplicadosLibros dice que pueden existir
+    boolean existsByCodigoOrTitulo(String codigo, String titulo);
 
+    // Estos resultados además se guardan en caché y se serializan fuera de la sesión que los cargó,
+    // donde un proxy perezoso ya no se podría inicializar.
+    @EntityGraph(attributePaths = "categoria")
     Optional<Libro> findByCodigo(String codigo);
 
-}
\ No newline at end of file
+    @EntityGraph(attributePaths = "categoria")
+    @Query("SELECT l FROM Libro l WHERE l.id = :id")
+    Optional<Libro> findConCategoriaById(@Param("id") Long id);
+
+    @Query("SELECT l.codigo FROM Libro l WHERE l.id = :id")
+    Optional<String> findCodigoById(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = "categoria")
+    List<Libro> findByCodigoIn(Collection<String> codigos);
+
+    @EntityGraph(attributePaths = "categoria")
+    List<Libro> findByIdIn(Collection<Long> ids);
+
+    // Lote de /libros/lote: ids y códigos en una sola consulta
+    @EntityGraph(attributePaths = "categoria")
+    @Query("SELECT l FROM Libro l WHERE l.id IN :ids OR l.codigo IN :codigos")
+    List<Libro> buscarPorIdsOCodigos(@Param("ids") Collection<Long> ids,
+                                     @Param("codigos") Collection<String> codigos);
+
+    // Verificación de duplicados por bloque en una sola consulta (importación masiva)
+    @Query("SELECT l.codigo, l.titulo, l.isbn FROM Libro l " +
+            "WHERE l.codigo IN :codigos OR l.titulo IN :titulos OR l.isbn IN :isbns")
+    List<Object[]> buscarDuplicados(@Param("codigos") Collection<String> codigos,
+                                    @Param("titulos") Collection<String> titulos,
+                                    @Param("isbns") Collection<String> isbns);
+
+    // Paginación por keyset: siempre ordenado por id y arrancando después del último id visto,
+    // así el costo no depende de qué tan lejos esté la página (no hay OFFSET).
+    @Query("SELECT l FROM Libro l LEFT JOIN FETCH l.categoria " +
+            "WHERE l.id > :ultimoId " +
+            "AND (:categoriaId IS NULL OR l.categoria.id = :categoriaId) " +
+            "AND (:estado IS NULL OR l.estado = :estado) " +
+            "AND (:autor IS NULL OR LOWER(l.autor) LIKE :autor ESCAPE '!') " +
+            "AND (:disponible IS NULL " +
+            "     OR (:disponible = TRUE AND l.stockDisponible > 0) " +
+            "     OR (:disponible = FALSE AND l.stockDisponible <= 0)) " +
+            "ORDER BY l.id ASC")
+    List<Libro> buscarPagina(@Param("ultimoId") Long ultimoId,
+                             @Param("categoriaId") Long categoriaId,
+                             @Param("estado") Boolean estado,
+                             @Param("autor") String autor,
+                             @Param("disponible") Boolean disponible,
+                             Pageable pageable);
+
+    // Sincronización incremental: lo modificado después de la marca (fecha, id) del cliente y hasta
+    // un límite apenas anterior al momento actual (ver LibroSincronizacionServiceImpl)
+    @Query("SELECT l FROM Libro l LEFT JOIN FETCH l.categoria " +
+            "WHERE (l.fechaActualizacion > :fecha OR (l.fechaActualizacion = :fecha AND l.id > :ultimoId)) " +
+            "AND l.fechaActualizacion <= :hasta " +
+            "ORDER BY l.fechaActualizacion ASC, l.id ASC")
+    List<Libro> buscarCambios(@Param("fecha") LocalDateTime fecha,
+                              @Param("ultimoId") Long ultimoId,
+                              @Param("hasta") LocalDateTime hasta,
+                              Pageable pageable);
+
+    // Movimientos de stock atómicos: la condición va en el mismo UPDATE, así dos préstamos
+    // simultáneos nunca dejan el stock disponible negativo ni pierden una actualización.
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Libro l SET l.stockDisponible = l.stockDisponible - :cantidad, " +
+            "l.fechaActualizacion = LOCAL DATETIME " +
+            "WHERE l.id = :id AND l.stockDisponible >= :cantidad")
+    int reservarStock(@Param("id") Long id, @Param("cantidad") int cantidad);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Libro l SET l.stockDisponible = l.stockDisponible + :cantidad, " +
+            "l.fechaActualizacion = LOCAL DATETIME " +
+            "WHERE l.id = :id AND l.stockDisponible + :cantidad <= l.stockTotal")
+    int devolverStock(@Param("id") Long id, @Param("cantidad") int cantidad);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Libro l SET l.stockTotal = :cantidad, " +
+            "l.stockDisponible = CASE WHEN l.stockDisponible > :cantidad THEN :cantidad ELSE l.stockDisponible END, " +
+            "l.fechaActualizacion = LOCAL DATETIME " +
+            "WHERE l.id = :id")
+    int actualizarStockTotal(@Param("id") Long id, @Param("cantidad") int cantidad);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Libro l SET l.portadaVariantes = :variantes, l.fechaActualizacion = LOCAL DATETIME " +
+            "WHERE l.portada = :portada")
+    int registrarVariantesPortada(@Param("portada") String portada, @Param("variantes") String variantes);
+
+    @EntityGraph(attributePaths = "categoria")
+    List<Libro> findByPortada(String portada);
+
+    // Cuáles de estas portadas siguen referenciadas por algún libro (barrido de huérfanas)
+    @Query("SELECT DISTINCT l.portada FROM Libro l WHERE l.portada IN :portadas")
+    List<String> findPortadasReferenciadas(@Param("portadas") Collection<String> portadas);
+
+    // Cursores de solo avance para la exportación: el driver de PostgreSQL solo trae las filas
+    // por bloques (fetch size) si se consume dentro de una transacción.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT l FROM Libro l LEFT JOIN FETCH l.categoria ORDER BY l.id ASC")
+    Stream<Libro> streamTodos();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT l FROM Libro l LEFT JOIN FETCH l.categoria " +
+            "WHERE l.fechaActualizacion >= :desde ORDER BY l.id ASC")
+    Stream<Libro> streamActualizadosDesde(@Param("desde") LocalDateTime desde);
+
+}
@@ -0,0 +1,14 @@
+package com.example.mscatalogo.repository;
+
+import java.util.Map;
+
+public interface LibroRepositoryCustom {
+
+    /**
+     * UPDATE de solo las columnas indicadas (nombre de atributo de Libro -> nuevo valor), sin leer
+     * la fila antes. Si cambia un lado del stock, el otro se compara en el mismo WHERE para no dejar
+     * el disponible por encima del total. Devuelve las filas modificadas.
+     */
+    int actualizarCampos(Long id, Map<String, Object> campos);
+
+}
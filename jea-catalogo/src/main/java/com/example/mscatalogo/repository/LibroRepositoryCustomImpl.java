@@ -0,0 +1,48 @@
+package com.example.mscatalogo.repository;
+
+import com.example.mscatalogo.entity.Categoria;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+public class LibroRepositoryCustomImpl implements LibroRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int actualizarCampos(Long id, Map<String, Object> campos) {
+        // Los nombres de atributo vienen de una lista fija en LibroServiceImpl, nunca del cliente
+        StringBuilder jpql = new StringBuilder("UPDATE Libro l SET ");
+        for (String campo : campos.keySet()) {
+            jpql.append("l.").append(campo).append(" = :").append(campo).append(", ");
+        }
+        jpql.append("l.fechaActualizacion = LOCAL DATETIME WHERE l.id = :id");
+
+        boolean cambiaTotal = campos.containsKey("stockTotal");
+        boolean cambiaDisponible = campos.containsKey("stockDisponible");
+        if (cambiaTotal && !cambiaDisponible) {
+            jpql.append(" AND l.stockDisponible <= :stockTotal");
+        } else if (cambiaDisponible && !cambiaTotal) {
+            jpql.append(" AND l.stockTotal >= :stockDisponible");
+        }
+
+        Query update = entityManager.createQuery(jpql.toString());
+        campos.forEach((campo, valor) -> {
+            // La categoría llega como id; la referencia no consulta la tabla categoria
+            if ("categoria".equals(campo) && valor != null) {
+                valor = entityManager.getReference(Categoria.class, valor);
+            }
+            update.setParameter(campo, valor);
+        });
+        update.setParameter("id", id);
+
+        int filas = update.executeUpdate();
+        entityManager.clear();
+        return filas;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.mscatalogo.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface LibroExportacionService {
+
+    String FORMATO_NDJSON = "ndjson";
+    String FORMATO_CSV = "csv";
+
+    void exportar(String formato, LocalDateTime actualizadoDesde, OutputStream salida) throws IOException;
+
+}
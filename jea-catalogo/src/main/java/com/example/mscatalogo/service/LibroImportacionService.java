@@ -0,0 +1,15 @@
+package com.example.mscatalogo.service;
+
+import com.example.mscatalogo.dto.ResultadoImportacionDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface LibroImportacionService {
+
+    String FORMATO_CSV = "csv";
+    String FORMATO_JSON = "json";
+
+    ResultadoImportacionDto importar(InputStream entrada, String formato) throws IOException;
+
+}
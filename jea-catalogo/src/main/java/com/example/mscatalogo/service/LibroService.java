@@ -1,7 +1,13 @@
 package com.example.mscatalogo.service;
 
 
+import com.example.mscatalogo.dto.FacetasDto;
+import com.example.mscatalogo.dto.LoteLibrosDto;
+import com.example.mscatalogo.dto.PaginaLibrosDto;
+import com.example.mscatalogo.dto.ResultadoBusquedaDto;
+import com.example.mscatalogo.dto.SugerenciaDto;
 import com.example.mscatalogo.entity.Libro;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
@@ -13,18 +19,35 @@ public interface LibroService {
 
     List<Libro> listar();
 
+    PaginaLibrosDto listarPagina(String cursor, Integer limite, Long categoriaId,
+                                 Boolean estado, String autor, Boolean disponible);
+
     Optional<Libro> obtenerPorId(Long id);
 
+    LoteLibrosDto obtenerLote(List<Long> ids, List<String> codigos);
+
     Libro actualizar(Long id, Libro libroActualizado);
 
+    Libro actualizarParcial(Long id, JsonNode parche);
+
     void eliminar(Long id);
 
     void desactivar(Long id);
 
     Libro actualizarCantidad(Long id, Integer nuevaCantidad);
 
+    Libro reservar(Long id, int cantidad);
+
+    Libro devolver(Long id, int cantidad);
+
     Libro actualizarConImagen(Long id, Libro libroActualizado, MultipartFile nuevaImagen);
 
     Optional<Libro> buscarPorCodigo(String codigo);
 
+    List<ResultadoBusquedaDto> buscar(String consulta, Integer limite);
+
+    List<SugerenciaDto> sugerir(String texto, Integer limite);
+
+    FacetasDto facetas(String consulta, Integer limite);
+
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.example.mscatalogo.service;
+
+import com.example.mscatalogo.dto.CambiosLibrosDto;
+
+public interface LibroSincronizacionService {
+
+    CambiosLibrosDto cambios(String desde, Integer limite);
+
+    int purgarEliminados();
+
+}
@@ -0,0 +1,22 @@
+package com.example.mscatalogo.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+public interface PortadaService {
+
+    // Tamaños que se generan en segundo plano; se sirven en /imagenes/{tamanio}/{portada}
+    String VARIANTE_PEQUENA = "small";
+    String VARIANTE_MEDIANA = "medium";
+    String VARIANTE_GRANDE = "large";
+
+    // Guarda la imagen original direccionada por su SHA-256 y devuelve su ruta relativa
+    // (ej: "3f/a2/3fa2...c1.jpg"). Si el mismo contenido ya estaba guardado se reutiliza.
+    String guardar(MultipartFile imagen);
+
+    // Se ejecuta en segundo plano; al terminar registra las variantes en los libros con esa portada
+    void generarVariantes(String portada);
+
+    // Borra los archivos que ya no referencia ningún libro (portadas reemplazadas o libros eliminados)
+    int recolectarHuerfanas();
+
+}
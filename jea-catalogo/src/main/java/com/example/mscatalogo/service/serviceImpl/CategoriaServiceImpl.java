@@ -1,9 +1,11 @@
 package com.example.mscatalogo.service.serviceImpl;
 
 import com.example.mscatalogo.entity.Categoria;
+import com.example.mscatalogo.evento.CategoriaCambiadaEvento;
 import com.example.mscatalogo.repository.CategoriaRepository;
 import com.example.mscatalogo.service.CategoriaService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -13,10 +15,13 @@ import java.util.Optional;
 public class CategoriaServiceImpl implements CategoriaService {
 
     private final CategoriaRepository categoriaRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public CategoriaServiceImpl(CategoriaRepository categoriaRepository) {
+    public CategoriaServiceImpl(CategoriaRepository categoriaRepository,
+                                ApplicationEventPublisher eventPublisher) {
         this.categoriaRepository = categoriaRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -32,7 +37,9 @@ public class CategoriaServiceImpl implements CategoriaService {
     @Override
     public Categoria guardarCategoria(Categoria categoria) {
         // Aquí podrías agregar lógica extra, validaciones, etc.
-        return categoriaRepository.save(categoria);
+        Categoria guardada = categoriaRepository.save(categoria);
+        eventPublisher.publishEvent(CategoriaCambiadaEvento.creada(guardada));
+        return guardada;
     }
 
     @Override
@@ -45,7 +52,9 @@ public class CategoriaServiceImpl implements CategoriaService {
             cat.setEstado(categoria.isEstado());
             // No actualizamos fechaCreacion porque es solo creación
 
-            return categoriaRepository.save(cat);
+            Categoria guardada = categoriaRepository.save(cat);
+            eventPublisher.publishEvent(CategoriaCambiadaEvento.actualizada(guardada));
+            return guardada;
         } else {
             // Aquí podrías lanzar una excepción o devolver null según tu diseño
             return null;
@@ -54,7 +63,11 @@ public class CategoriaServiceImpl implements CategoriaService {
 
     @Override
     public void eliminarCategoria(Long id) {
-        categoriaRepository.deleteById(id);
+        // deleteById no avisa si no existía; solo se publica lo que de verdad se borró
+        categoriaRepository.findById(id).ifPresent(categoria -> {
+            categoriaRepository.delete(categoria);
+            eventPublisher.publishEvent(CategoriaCambiadaEvento.eliminada(id));
+        });
     }
 
     @Override
@@ -63,7 +76,8 @@ public class CategoriaServiceImpl implements CategoriaService {
         if (categoriaOpt.isPresent()) {
             Categoria categoria = categoriaOpt.get();
             categoria.setEstado(false); // Cambia estado a inactivo
-            categoriaRepository.save(categoria);
+            Categoria guardada = categoriaRepository.save(categoria);
+            eventPublisher.publishEvent(CategoriaCambiadaEvento.actualizada(guardada));
         } else {
             // Puedes lanzar excepción o manejar según necesites
         }
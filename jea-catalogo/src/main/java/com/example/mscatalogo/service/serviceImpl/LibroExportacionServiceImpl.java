@@ -0,0 +1,157 @@
+package com.example.mscatalogo.service.serviceImpl;
+
+import com.example.mscatalogo.entity.Categoria;
+import com.example.mscatalogo.entity.Libro;
+import com.example.mscatalogo.repository.LibroRepository;
+import com.example.mscatalogo.service.LibroExportacionService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class LibroExportacionServiceImpl implements LibroExportacionService {
+
+    // Cada cuántas filas se vacía el buffer hacia el cliente y se limpia el contexto de persistencia
+    private static final int FILAS_POR_BLOQUE = 500;
+
+    private static final String CABECERA_CSV = "id,codigo,titulo,autor,editorial,isbn,anioPublicacion,"
+            + "stockTotal,stockDisponible,estado,categoriaId,categoria,portada,fechaCreacion,fechaActualizacion";
+
+    private final LibroRepository libroRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    public LibroExportacionServiceImpl(LibroRepository libroRepository,
+                                       ObjectMapper objectMapper,
+                                       EntityManager entityManager) {
+        this.libroRepository = libroRepository;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportar(String formato, LocalDateTime actualizadoDesde, OutputStream salida) throws IOException {
+
+        boolean csv = FORMATO_CSV.equalsIgnoreCase(formato);
+
+        try (Stream<Libro> libros = actualizadoDesde == null
+                ? libroRepository.streamTodos()
+                : libroRepository.streamActualizadosDesde(actualizadoDesde)) {
+
+            if (csv) {
+                escribirCsv(libros.iterator(), salida);
+            } else {
+                escribirNdjson(libros.iterator(), salida);
+            }
+        }
+    }
+
+    private void escribirNdjson(Iterator<Libro> libros, OutputStream salida) throws IOException {
+        JsonGenerator generador = objectMapper.getFactory().createGenerator(salida);
+        generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Sin separador entre valores raíz: cada libro va en su propia línea
+        generador.setRootValueSeparator(null);
+
+        // Se envía el primer byte de inmediato aunque la consulta tarde en devolver filas
+        generador.flush();
+
+        int filas = 0;
+        while (libros.hasNext()) {
+            Libro libro = libros.next();
+            generador.writeObject(libro);
+            generador.writeRaw('\n');
+            liberar(libro);
+
+            if (++filas % FILAS_POR_BLOQUE == 0) {
+                generador.flush();
+                entityManager.clear();
+            }
+        }
+        generador.flush();
+    }
+
+    private void escribirCsv(Iterator<Libro> libros, OutputStream salida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        writer.write(CABECERA_CSV);
+        writer.write('\n');
+        writer.flush();
+
+        int filas = 0;
+        while (libros.hasNext()) {
+            Libro libro = libros.next();
+            Categoria categoria = libro.getCategoria();
+
+            writer.write(String.valueOf(libro.getId()));
+            writer.write(',');
+            writer.write(campoCsv(libro.getCodigo()));
+            writer.write(',');
+            writer.write(campoCsv(libro.getTitulo()));
+            writer.write(',');
+            writer.write(campoCsv(libro.getAutor()));
+            writer.write(',');
+            writer.write(campoCsv(libro.getEditorial()));
+            writer.write(',');
+            writer.write(campoCsv(libro.getIsbn()));
+            writer.write(',');
+            writer.write(campoCsv(libro.getAnioPublicacion()));
+            writer.write(',');
+            writer.write(campoCsv(libro.getStockTotal()));
+            writer.write(',');
+            writer.write(campoCsv(libro.getStockDisponible()));
+            writer.write(',');
+            writer.write(String.valueOf(libro.isEstado()));
+            writer.write(',');
+            writer.write(campoCsv(categoria != null ? categoria.getId() : null));
+            writer.write(',');
+            writer.write(campoCsv(categoria != null ? categoria.getNombre() : null));
+            writer.write(',');
+            writer.write(campoCsv(libro.getPortada()));
+            writer.write(',');
+            writer.write(campoCsv(libro.getFechaCreacion()));
+            writer.write(',');
+            writer.write(campoCsv(libro.getFechaActualizacion()));
+            writer.write('\n');
+            liberar(libro);
+
+            if (++filas % FILAS_POR_BLOQUE == 0) {
+                writer.flush();
+                entityManager.clear();
+            }
+        }
+        writer.flush();
+    }
+
+    // Saca el libro del contexto de persistencia para que la memoria no crezca con el catálogo
+    private void liberar(Libro libro) {
+        entityManager.detach(libro);
+    }
+
+    private String campoCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        boolean requiereComillas = texto.indexOf(',') >= 0
+                || texto.indexOf('"') >= 0
+                || texto.indexOf('\n') >= 0
+                || texto.indexOf('\r') >= 0;
+
+        if (!requiereComillas) {
+            return texto;
+        }
+        return '"' + texto.replace("\"", "\"\"") + '"';
+    }
+}
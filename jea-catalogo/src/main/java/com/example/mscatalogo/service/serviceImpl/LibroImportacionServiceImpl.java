@@ -0,0 +1,433 @@
+package com.example.mscatalogo.service.serviceImpl;
+
+import com.example.mscatalogo.dto.ErrorImportacionDto;
+import com.example.mscatalogo.dto.FilaImportacionDto;
+import com.example.mscatalogo.dto.ResultadoImportacionDto;
+import com.example.mscatalogo.entity.Libro;
+import com.example.mscatalogo.evento.LibroCambiadoEvento;
+import com.example.mscatalogo.repository.CategoriaRepository;
+import com.example.mscatalogo.repository.LibroRepository;
+import com.example.mscatalogo.service.LibroImportacionService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class LibroImportacionServiceImpl implements LibroImportacionService {
+
+    // Filas por bloque: una consulta de duplicados y un lote de INSERT por bloque
+    private static final int TAMANIO_BLOQUE = 500;
+
+    // Para no devolver una respuesta gigante si el archivo entero viene mal
+    private static final int MAXIMO_ERRORES_REPORTADOS = 1000;
+
+    private static final String SQL_INSERTAR = "INSERT INTO libro (codigo, titulo, descripcion, autor, editorial, "
+            + "isbn, anio_publicacion, stock_total, stock_disponible, estado, fecha_creacion, fecha_actualizacion, "
+            + "categoria_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final LibroRepository libroRepository;
+    private final CategoriaRepository categoriaRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public LibroImportacionServiceImpl(LibroRepository libroRepository,
+                                       CategoriaRepository categoriaRepository,
+                                       JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate,
+                                       ObjectMapper objectMapper,
+                                       ApplicationEventPublisher eventPublisher) {
+        this.libroRepository = libroRepository;
+        this.categoriaRepository = categoriaRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public ResultadoImportacionDto importar(InputStream entrada, String formato) throws IOException {
+        long inicio = System.currentTimeMillis();
+        Importacion importacion = new Importacion(new HashSet<>(categoriaRepository.findAllIds()));
+
+        Reader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        if (FORMATO_JSON.equalsIgnoreCase(formato)) {
+            leerJson(reader, importacion);
+        } else {
+            leerCsv(reader, importacion);
+        }
+        procesarBloque(importacion);
+
+        importacion.resultado.setMilisegundos(System.currentTimeMillis() - inicio);
+        return importacion.resultado;
+    }
+
+    // Se espera un arreglo de objetos; cada elemento se convierte sin cargar el archivo completo
+    private void leerJson(Reader reader, Importacion importacion) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(reader)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                importacion.error(0, null, "Se esperaba un arreglo JSON de libros");
+                return;
+            }
+            long fila = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                fila++;
+                // Se lee primero como árbol: un valor con tipo incorrecto invalida solo esa fila
+                JsonNode nodo = parser.readValueAsTree();
+                try {
+                    importacion.agregar(fila, objectMapper.treeToValue(nodo, FilaImportacionDto.class));
+                } catch (JsonProcessingException e) {
+                    importacion.error(fila, nodo.path("codigo").asText(null), "Fila inválida: " + e.getOriginalMessage());
+                }
+                if (importacion.bloqueLleno()) {
+                    procesarBloque(importacion);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            importacion.error(0, null, "JSON mal formado: " + e.getOriginalMessage());
+        }
+    }
+
+    private void leerCsv(Reader reader, Importacion importacion) throws IOException {
+        LectorCsv lector = new LectorCsv(reader);
+        List<String> cabecera = lector.siguienteRegistro();
+        if (cabecera == null) {
+            return;
+        }
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < cabecera.size(); i++) {
+            columnas.put(cabecera.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        long fila = 0;
+        List<String> campos;
+        while ((campos = lector.siguienteRegistro()) != null) {
+            if (campos.size() == 1 && campos.get(0).isBlank()) {
+                continue;
+            }
+            fila++;
+            try {
+                FilaImportacionDto dto = new FilaImportacionDto();
+                dto.setCodigo(texto(campos, columnas, "codigo"));
+                dto.setTitulo(texto(campos, columnas, "titulo"));
+                dto.setDescripcion(texto(campos, columnas, "descripcion"));
+                dto.setAutor(texto(campos, columnas, "autor"));
+                dto.setEditorial(texto(campos, columnas, "editorial"));
+                dto.setIsbn(texto(campos, columnas, "isbn"));
+                dto.setAnioPublicacion(entero(campos, columnas, "aniopublicacion"));
+                dto.setStockTotal(entero(campos, columnas, "stocktotal"));
+                dto.setStockDisponible(entero(campos, columnas, "stockdisponible"));
+                String categoria = texto(campos, columnas, "categoriaid");
+                dto.setCategoriaId(categoria == null ? null : Long.parseLong(categoria));
+                dto.setEstado(booleano(campos, columnas, "estado"));
+                importacion.agregar(fila, dto);
+            } catch (NumberFormatException e) {
+                importacion.error(fila, texto(campos, columnas, "codigo"), "Valor numérico inválido: " + e.getMessage());
+            } catch (IllegalArgumentException e) {
+                importacion.error(fila, texto(campos, columnas, "codigo"), e.getMessage());
+            }
+            if (importacion.bloqueLleno()) {
+                procesarBloque(importacion);
+            }
+        }
+    }
+
+    private void procesarBloque(Importacion importacion) {
+        List<FilaPendiente> bloque = importacion.tomarBloque();
+        if (bloque.isEmpty()) {
+            return;
+        }
+
+        // Una sola consulta para los duplicados del bloque contra la base de datos. No se filtra con
+        // FiltroDuplicadosLibros: solo conoce lo que vio esta instancia, y un duplicado que se escape
+        // revierte el bloque entero al chocar con una restricción única
+        Set<String> codigos = new HashSet<>();
+        Set<String> titulos = new HashSet<>();
+        Set<String> isbns = new HashSet<>();
+        for (FilaPendiente pendiente : bloque) {
+            codigos.add(pendiente.dto.getCodigo());
+            titulos.add(pendiente.dto.getTitulo());
+            if (pendiente.dto.getIsbn() != null) {
+                isbns.add(pendiente.dto.getIsbn());
+            }
+        }
+        Set<String> codigosExistentes = new HashSet<>();
+        Set<String> titulosExistentes = new HashSet<>();
+        Set<String> isbnsExistentes = new HashSet<>();
+        List<Object[]> existentes = libroRepository.buscarDuplicados(codigos, titulos, isbns);
+        for (Object[] existente : existentes) {
+            codigosExistentes.add((String) existente[0]);
+            titulosExistentes.add((String) existente[1]);
+            if (existente[2] != null) {
+                isbnsExistentes.add((String) existente[2]);
+            }
+        }
+
+        List<FilaPendiente> aInsertar = new ArrayList<>(bloque.size());
+        for (FilaPendiente pendiente : bloque) {
+            FilaImportacionDto dto = pendiente.dto;
+            if (codigosExistentes.contains(dto.getCodigo())) {
+                importacion.error(pendiente.fila, dto.getCodigo(), "Ya existe un libro con ese código");
+            } else if (titulosExistentes.contains(dto.getTitulo())) {
+                importacion.error(pendiente.fila, dto.getCodigo(), "Ya existe un libro con ese título");
+            } else if (dto.getIsbn() != null && isbnsExistentes.contains(dto.getIsbn())) {
+                importacion.error(pendiente.fila, dto.getCodigo(), "Ya existe un libro con ese ISBN");
+            } else {
+                aInsertar.add(pendiente);
+            }
+        }
+        if (aInsertar.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertarLote(aInsertar));
+        } catch (DataAccessException e) {
+            // Otra escritura concurrente ganó alguna restricción única: el bloque entero se revierte
+            for (FilaPendiente pendiente : aInsertar) {
+                importacion.error(pendiente.fila, pendiente.dto.getCodigo(),
+                        "No se pudo insertar el bloque: " + e.getMostSpecificCause().getMessage());
+            }
+            return;
+        }
+        importacion.resultado.setInsertadas(importacion.resultado.getInsertadas() + aInsertar.size());
+
+        // Los índices en memoria y las cachés se enteran igual que con una creación normal
+        List<String> insertados = aInsertar.stream().map(p -> p.dto.getCodigo()).toList();
+        for (Libro libro : libroRepository.findByCodigoIn(insertados)) {
+            eventPublisher.publishEvent(LibroCambiadoEvento.creado(libro));
+        }
+    }
+
+    private void insertarLote(List<FilaPendiente> filas) {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(SQL_INSERTAR, filas, filas.size(), (ps, pendiente) -> {
+            FilaImportacionDto dto = pendiente.dto;
+            ps.setString(1, dto.getCodigo());
+            ps.setString(2, dto.getTitulo());
+            ps.setString(3, dto.getDescripcion());
+            ps.setString(4, dto.getAutor());
+            ps.setString(5, dto.getEditorial());
+            ps.setString(6, dto.getIsbn());
+            ps.setObject(7, dto.getAnioPublicacion(), Types.INTEGER);
+            ps.setInt(8, dto.getStockTotal());
+            ps.setInt(9, dto.getStockDisponible());
+            ps.setBoolean(10, dto.getEstado());
+            ps.setTimestamp(11, ahora);
+            ps.setTimestamp(12, ahora);
+            ps.setObject(13, dto.getCategoriaId(), Types.BIGINT);
+        });
+    }
+
+    private static String texto(List<String> campos, Map<String, Integer> columnas, String nombre) {
+        Integer posicion = columnas.get(nombre);
+        if (posicion == null || posicion >= campos.size()) {
+            return null;
+        }
+        String valor = campos.get(posicion).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private static Integer entero(List<String> campos, Map<String, Integer> columnas, String nombre) {
+        String valor = texto(campos, columnas, nombre);
+        return valor == null ? null : Integer.parseInt(valor);
+    }
+
+    // Solo true o false: cualquier otro valor ("si", "1", un error de tipeo) es un error de la fila,
+    // no un libro inactivo
+    private static Boolean booleano(List<String> campos, Map<String, Integer> columnas, String nombre) {
+        String valor = texto(campos, columnas, nombre);
+        if (valor == null) {
+            return null;
+        }
+        if (valor.equalsIgnoreCase("true")) {
+            return Boolean.TRUE;
+        }
+        if (valor.equalsIgnoreCase("false")) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("El campo " + nombre + " debe ser true o false: " + valor);
+    }
+
+    /** Estado de una importación en curso: el bloque pendiente, lo ya visto en el archivo y el resultado. */
+    private static final class Importacion {
+        private final Set<Long> categoriasExistentes;
+        private final Set<String> codigosDelArchivo = new HashSet<>();
+        private final Set<String> titulosDelArchivo = new HashSet<>();
+        private final Set<String> isbnsDelArchivo = new HashSet<>();
+        private List<FilaPendiente> bloque = new ArrayList<>(TAMANIO_BLOQUE);
+        private final ResultadoImportacionDto resultado = new ResultadoImportacionDto();
+
+        Importacion(Set<Long> categoriasExistentes) {
+            this.categoriasExistentes = categoriasExistentes;
+        }
+
+        // Validaciones que no necesitan la base de datos; si pasan, la fila queda en el bloque
+        void agregar(long fila, FilaImportacionDto dto) {
+            resultado.setProcesadas(resultado.getProcesadas() + 1);
+
+            dto.setCodigo(limpiar(dto.getCodigo()));
+            dto.setTitulo(limpiar(dto.getTitulo()));
+            dto.setAutor(limpiar(dto.getAutor()));
+            dto.setIsbn(limpiar(dto.getIsbn()));
+
+            if (dto.getCodigo() == null || dto.getTitulo() == null || dto.getAutor() == null) {
+                rechazar(fila, dto.getCodigo(), "codigo, titulo y autor son obligatorios");
+                return;
+            }
+            if (dto.getStockTotal() == null) {
+                dto.setStockTotal(0);
+            }
+            if (dto.getStockDisponible() == null) {
+                dto.setStockDisponible(dto.getStockTotal());
+            }
+            if (dto.getStockTotal() < 0 || dto.getStockDisponible() < 0
+                    || dto.getStockDisponible() > dto.getStockTotal()) {
+                rechazar(fila, dto.getCodigo(), "Stock inválido");
+                return;
+            }
+            if (dto.getEstado() == null) {
+                dto.setEstado(true);
+            }
+            if (dto.getCategoriaId() != null && !categoriasExistentes.contains(dto.getCategoriaId())) {
+                rechazar(fila, dto.getCodigo(), "No existe la categoría " + dto.getCategoriaId());
+                return;
+            }
+            if (!codigosDelArchivo.add(dto.getCodigo())) {
+                rechazar(fila, dto.getCodigo(), "Código repetido en el archivo");
+                return;
+            }
+            if (!titulosDelArchivo.add(dto.getTitulo())) {
+                rechazar(fila, dto.getCodigo(), "Título repetido en el archivo");
+                return;
+            }
+            if (dto.getIsbn() != null && !isbnsDelArchivo.add(dto.getIsbn())) {
+                rechazar(fila, dto.getCodigo(), "ISBN repetido en el archivo");
+                return;
+            }
+            bloque.add(new FilaPendiente(fila, dto));
+        }
+
+        // Fila que ni siquiera se pudo leer
+        void error(long fila, String codigo, String mensaje) {
+            if (fila > 0) {
+                resultado.setProcesadas(resultado.getProcesadas() + 1);
+            }
+            rechazar(fila, codigo, mensaje);
+        }
+
+        private void rechazar(long fila, String codigo, String mensaje) {
+            resultado.setRechazadas(resultado.getRechazadas() + 1);
+            if (resultado.getErrores().size() < MAXIMO_ERRORES_REPORTADOS) {
+                resultado.getErrores().add(new ErrorImportacionDto(fila, codigo, mensaje));
+            }
+        }
+
+        boolean bloqueLleno() {
+            return bloque.size() >= TAMANIO_BLOQUE;
+        }
+
+        List<FilaPendiente> tomarBloque() {
+            List<FilaPendiente> actual = bloque;
+            bloque = new ArrayList<>(TAMANIO_BLOQUE);
+            return actual;
+        }
+
+        private static String limpiar(String valor) {
+            if (valor == null) {
+                return null;
+            }
+            String limpio = valor.trim();
+            return limpio.isEmpty() ? null : limpio;
+        }
+    }
+
+    private static final class FilaPendiente {
+        private final long fila;
+        private final FilaImportacionDto dto;
+
+        FilaPendiente(long fila, FilaImportacionDto dto) {
+            this.fila = fila;
+            this.dto = dto;
+        }
+    }
+
+    /** Lector CSV (RFC 4180) de un registro a la vez: comillas dobles, comas y saltos de línea dentro de campos. */
+    private static final class LectorCsv {
+        private final Reader reader;
+
+        LectorCsv(Reader reader) {
+            this.reader = reader;
+        }
+
+        List<String> siguienteRegistro() throws IOException {
+            List<String> campos = new ArrayList<>();
+            StringBuilder campo = new StringBuilder();
+            boolean entreComillas = false;
+            boolean leyoAlgo = false;
+
+            int c;
+            while ((c = reader.read()) != -1) {
+                leyoAlgo = true;
+                char caracter = (char) c;
+                if (entreComillas) {
+                    if (caracter == '"') {
+                        reader.mark(1);
+                        int siguiente = reader.read();
+                        if (siguiente == '"') {
+                            campo.append('"');
+                        } else {
+                            entreComillas = false;
+                            if (siguiente != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        campo.append(caracter);
+                    }
+                } else if (caracter == '"') {
+                    entreComillas = true;
+                } else if (caracter == ',') {
+                    campos.add(campo.toString());
+                    campo.setLength(0);
+                } else if (caracter == '\n') {
+                    campos.add(campo.toString());
+                    return campos;
+                } else if (caracter != '\r') {
+                    campo.append(caracter);
+                }
+            }
+
+            if (!leyoAlgo) {
+                return null;
+            }
+            campos.add(campo.toString());
+            return campos;
+        }
+    }
+}
@@ -1,20 +1,49 @@
 package com.example.mscatalogo.service.serviceImpl;
 
+import com.example.mscatalogo.busqueda.FacetasLibros;
+import com.example.mscatalogo.busqueda.FiltroDuplicadosLibros;
+import com.example.mscatalogo.busqueda.IndiceInvertidoLibros;
+import com.example.mscatalogo.busqueda.TrieSugerencias;
+import com.example.mscatalogo.cache.CacheLibrosConfig;
+import com.example.mscatalogo.cache.InvalidadorCacheLibros;
+import com.example.mscatalogo.dto.ElementoLoteDto;
+import com.example.mscatalogo.dto.FacetasDto;
+import com.example.mscatalogo.dto.LoteLibrosDto;
+import com.example.mscatalogo.dto.PaginaLibrosDto;
+import com.example.mscatalogo.dto.ResultadoBusquedaDto;
+import com.example.mscatalogo.dto.SugerenciaDto;
 import com.example.mscatalogo.entity.Libro;
+import com.example.mscatalogo.entity.LibroEliminado;
+import com.example.mscatalogo.evento.LibroCambiadoEvento;
+import com.example.mscatalogo.repository.LibroEliminadoRepository;
 import com.example.mscatalogo.repository.LibroRepository;
 import com.example.mscatalogo.service.LibroService;
+import com.example.mscatalogo.service.PortadaService;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Service
 public class LibroServiceImpl implements LibroService {
@@ -22,32 +51,80 @@ public class LibroServiceImpl implements LibroService {
     @Autowired
     private LibroRepository libroRepository;
 
-    private static final String RUTA_IMAGENES = "C:\\cursos\\gestion\\proyecto\\Sistema-ventas-ms-master\\imagenes";
+    @Autowired
+    private LibroEliminadoRepository libroEliminadoRepository;
+
+    @Autowired
+    private IndiceInvertidoLibros indiceInvertidoLibros;
+
+    @Autowired
+    private TrieSugerencias trieSugerencias;
+
+    @Autowired
+    private FiltroDuplicadosLibros filtroDuplicadosLibros;
+
+    @Autowired
+    private FacetasLibros facetasLibros;
+
+    @Autowired
+    private PortadaService portadaService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private InvalidadorCacheLibros invalidadorCacheLibros;
+
+    private static final int LIMITE_POR_DEFECTO = 20;
+    private static final int LIMITE_MAXIMO = 100;
+    private static final int LIMITE_BUSQUEDA_POR_DEFECTO = 20;
+    private static final int LIMITE_SUGERENCIAS_POR_DEFECTO = 10;
+    private static final int LIMITE_SUGERENCIAS_MAXIMO = 50;
+    private static final int LIMITE_FACETAS_POR_DEFECTO = 20;
+    private static final int LIMITE_LOTE = 500;
+
+    // Atributos que acepta PATCH /libros/{id}; los de texto y números se copian tal cual
+    private static final Set<String> CAMPOS_TEXTO = Set.of("codigo", "titulo", "descripcion", "autor", "editorial", "isbn");
+    private static final Set<String> CAMPOS_ENTEROS = Set.of("anioPublicacion", "stockTotal", "stockDisponible");
+    private static final Set<String> CAMPOS_OBLIGATORIOS = Set.of("codigo", "titulo", "autor", "stockTotal", "stockDisponible", "estado");
 
     @Override
     public Libro guardarConImagen(Libro libro, MultipartFile imagenFile) {
 
-        boolean existeCodigo = libroRepository.existsByCodigo(libro.getCodigo());
-        boolean existeNombre = libroRepository.existsByTitulo(libro.getTitulo());
+        // Si el filtro local dice que puede estar se confirma antes de guardar la portada. Si lo descarta
+        // no se consulta, pero el filtro solo conoce lo que vio esta instancia: lo que otra acaba de
+        // crear lo rechazan igual las restricciones únicas de codigo, titulo e isbn al insertar (la de
+        // titulo la asegura IndiceUnicoTituloLibros en las bases creadas antes de agregarla).
+        boolean puedeExistir = filtroDuplicadosLibros.puedeExistirCodigo(libro.getCodigo())
+                || filtroDuplicadosLibros.puedeExistirTitulo(libro.getTitulo());
 
-        if (existeCodigo || existeNombre) {
+        if (puedeExistir && libroRepository.existsByCodigoOrTitulo(libro.getCodigo(), libro.getTitulo())) {
             throw new RuntimeException("Ya existe un libro con ese código o título");
         }
 
         // Guardar imagen
-        if (imagenFile != null && !imagenFile.isEmpty()) {
-            try {
-                Files.createDirectories(Paths.get(RUTA_IMAGENES));
-                String nombreArchivo = UUID.randomUUID() + "_" + imagenFile.getOriginalFilename();
-                Path rutaArchivo = Paths.get(RUTA_IMAGENES).resolve(nombreArchivo);
-                Files.copy(imagenFile.getInputStream(), rutaArchivo, StandardCopyOption.REPLACE_EXISTING);
-                libro.setPortada(nombreArchivo);
-            } catch (IOException e) {
-                throw new RuntimeException("Error al guardar la portada: " + e.getMessage());
-            }
+        boolean nuevaPortada = imagenFile != null && !imagenFile.isEmpty();
+        if (nuevaPortada) {
+            libro.setPortada(portadaService.guardar(imagenFile));
+            libro.setPortadaVariantes(null);
+        }
+
+        Libro guardado;
+        try {
+            guardado = libroRepository.save(libro);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Ya existe un libro con ese código, título o ISBN", e);
         }
+        eventPublisher.publishEvent(LibroCambiadoEvento.creado(guardado));
 
-        return libroRepository.save(libro);
+        // Las miniaturas se generan después de guardar, sin que la respuesta las espere
+        if (nuevaPortada) {
+            portadaService.generarVariantes(guardado.getPortada());
+        }
+        return guardado;
     }
 
     @Override
@@ -55,9 +132,137 @@ public class LibroServiceImpl implements LibroService {
         return libroRepository.findAll();
     }
 
+    @Override
+    public PaginaLibrosDto listarPagina(String cursor, Integer limite, Long categoriaId,
+                                        Boolean estado, String autor, Boolean disponible) {
+
+        int tamanio = (limite == null || limite <= 0) ? LIMITE_POR_DEFECTO : Math.min(limite, LIMITE_MAXIMO);
+        Long ultimoId = decodificarCursor(cursor);
+        String patronAutor = (autor == null || autor.isBlank())
+                ? null
+                : "%" + escaparLike(autor.trim().toLowerCase(Locale.ROOT)) + "%";
+
+        // Se pide un registro extra solo para saber si existe una página siguiente
+        List<Libro> libros = libroRepository.buscarPagina(
+                ultimoId, categoriaId, estado, patronAutor, disponible, PageRequest.of(0, tamanio + 1));
+
+        boolean hayMas = libros.size() > tamanio;
+        if (hayMas) {
+            libros = libros.subList(0, tamanio);
+        }
+
+        String siguienteCursor = hayMas ? codificarCursor(libros.get(libros.size() - 1).getId()) : null;
+        return new PaginaLibrosDto(libros, hayMas, siguienteCursor);
+    }
+
+    // Un "%" o "_" escrito por el usuario se busca literal (ESCAPE '!' en LibroRepository.buscarPagina)
+    private static String escaparLike(String texto) {
+        return texto.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    private String codificarCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Long decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return Long.parseLong(valor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
     @Override
     public Optional<Libro> obtenerPorId(Long id) {
-        return libroRepository.findById(id);
+        return leerConCache(CacheLibrosConfig.LIBROS_POR_ID, id, () -> libroRepository.findConCategoriaById(id));
+    }
+
+    // Un fallo va a la base y guarda lo leído, también el "no existe", salvo que un cambio lo haya
+    // invalidado mientras tanto
+    private <K> Optional<Libro> leerConCache(String nombreCache, K clave, Supplier<Optional<Libro>> cargar) {
+        Cache cache = cacheManager.getCache(nombreCache);
+        Cache.ValueWrapper valor = cache == null ? null : cache.get(clave);
+        if (valor != null) {
+            return Optional.ofNullable((Libro) valor.get());
+        }
+        long marca = invalidadorCacheLibros.marca();
+        Optional<Libro> libro = cargar.get();
+        invalidadorCacheLibros.guardar(nombreCache, clave, libro.orElse(null), marca);
+        return libro;
+    }
+
+    @Override
+    public LoteLibrosDto obtenerLote(List<Long> ids, List<String> codigos) {
+        List<Long> listaIds = ids == null ? List.of() : ids;
+        List<String> listaCodigos = codigos == null ? List.of() : codigos;
+        if (listaIds.size() + listaCodigos.size() > LIMITE_LOTE) {
+            throw new IllegalArgumentException("Se pueden pedir hasta " + LIMITE_LOTE + " libros por lote");
+        }
+
+        // Primero las mismas cachés que obtenerPorId y buscarPorCodigo; una clave presente con valor
+        // null es un "no existe" ya conocido
+        Cache cachePorId = cacheManager.getCache(CacheLibrosConfig.LIBROS_POR_ID);
+        Cache cachePorCodigo = cacheManager.getCache(CacheLibrosConfig.LIBROS_POR_CODIGO);
+        Map<Long, Libro> porId = new HashMap<>();
+        Map<String, Libro> porCodigo = new HashMap<>();
+        Set<Long> idsPendientes = new LinkedHashSet<>();
+        Set<String> codigosPendientes = new LinkedHashSet<>();
+
+        for (Long id : listaIds) {
+            if (id != null && !porId.containsKey(id) && !desdeCache(cachePorId, id, porId)) {
+                idsPendientes.add(id);
+            }
+        }
+        for (String codigo : listaCodigos) {
+            if (codigo != null && !porCodigo.containsKey(codigo) && !desdeCache(cachePorCodigo, codigo, porCodigo)) {
+                codigosPendientes.add(codigo);
+            }
+        }
+
+        // El resto en una sola consulta IN, y lo encontrado queda en caché para la próxima vez
+        if (!idsPendientes.isEmpty() || !codigosPendientes.isEmpty()) {
+            long marca = invalidadorCacheLibros.marca();
+            for (Libro libro : buscarLote(idsPendientes, codigosPendientes)) {
+                porId.put(libro.getId(), libro);
+                porCodigo.put(libro.getCodigo(), libro);
+                invalidadorCacheLibros.guardar(CacheLibrosConfig.LIBROS_POR_ID, libro.getId(), libro, marca);
+                invalidadorCacheLibros.guardar(CacheLibrosConfig.LIBROS_POR_CODIGO, libro.getCodigo(), libro, marca);
+            }
+        }
+
+        List<ElementoLoteDto> resultadosPorId = new ArrayList<>(listaIds.size());
+        for (Long id : listaIds) {
+            resultadosPorId.add(new ElementoLoteDto(String.valueOf(id), id == null ? null : porId.get(id)));
+        }
+        List<ElementoLoteDto> resultadosPorCodigo = new ArrayList<>(listaCodigos.size());
+        for (String codigo : listaCodigos) {
+            resultadosPorCodigo.add(new ElementoLoteDto(codigo, codigo == null ? null : porCodigo.get(codigo)));
+        }
+        return new LoteLibrosDto(resultadosPorId, resultadosPorCodigo);
+    }
+
+    private <K> boolean desdeCache(Cache cache, K clave, Map<K, Libro> resueltos) {
+        Cache.ValueWrapper valor = cache == null ? null : cache.get(clave);
+        if (valor == null) {
+            return false;
+        }
+        resueltos.put(clave, (Libro) valor.get());
+        return true;
+    }
+
+    private List<Libro> buscarLote(Collection<Long> ids, Collection<String> codigos) {
+        if (codigos.isEmpty()) {
+            return libroRepository.findByIdIn(ids);
+        }
+        if (ids.isEmpty()) {
+            return libroRepository.findByCodigoIn(codigos);
+        }
+        return libroRepository.buscarPorIdsOCodigos(ids, codigos);
     }
 
     @Override
@@ -66,6 +271,7 @@ public class LibroServiceImpl implements LibroService {
         Libro libro = libroRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Libro no encontrado"));
 
+        String codigoAnterior = libro.getCodigo();
         libro.setCodigo(libroActualizado.getCodigo());
         libro.setTitulo(libroActualizado.getTitulo());
         libro.setDescripcion(libroActualizado.getDescripcion());
@@ -78,12 +284,101 @@ public class LibroServiceImpl implements LibroService {
         libro.setCategoria(libroActualizado.getCategoria());
         libro.setEstado(libroActualizado.isEstado());
 
-        return libroRepository.save(libro);
+        Libro guardado = libroRepository.save(libro);
+        eventPublisher.publishEvent(LibroCambiadoEvento.actualizado(guardado, codigoAnterior));
+        return guardado;
+    }
+
+    @Override
+    public Libro actualizarParcial(Long id, JsonNode parche) {
+        if (parche == null || !parche.isObject()) {
+            throw new IllegalArgumentException("El parche debe ser un objeto JSON");
+        }
+
+        // JSON Merge Patch (RFC 7396): solo viajan los atributos presentes, null borra el valor
+        Map<String, Object> campos = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> entradas = parche.fields();
+        while (entradas.hasNext()) {
+            Map.Entry<String, JsonNode> entrada = entradas.next();
+            String campo = entrada.getKey();
+            JsonNode valor = entrada.getValue();
+
+            if (valor.isNull() && CAMPOS_OBLIGATORIOS.contains(campo)) {
+                throw new IllegalArgumentException("El campo " + campo + " no puede ser nulo");
+            }
+            if (CAMPOS_TEXTO.contains(campo)) {
+                if (!valor.isNull() && !valor.isTextual()) {
+                    throw new IllegalArgumentException("El campo " + campo + " debe ser texto");
+                }
+                campos.put(campo, valor.isNull() ? null : valor.asText());
+            } else if (CAMPOS_ENTEROS.contains(campo)) {
+                // canConvertToInt también acepta 3.7 y intValue lo truncaría a 3: se exige un entero JSON
+                if (!valor.isNull() && !(valor.isIntegralNumber() && valor.canConvertToInt())) {
+                    throw new IllegalArgumentException("El campo " + campo + " debe ser un número entero");
+                }
+                campos.put(campo, valor.isNull() ? null : valor.intValue());
+            } else if ("estado".equals(campo)) {
+                if (!valor.isBoolean()) {
+                    throw new IllegalArgumentException("El campo estado debe ser booleano");
+                }
+                campos.put(campo, valor.booleanValue());
+            } else if ("categoria".equals(campo)) {
+                // Solo se puede cambiar a qué categoría pertenece, no la categoría en sí
+                JsonNode categoriaId = valor.path("id");
+                if (!valor.isNull() && !(categoriaId.isIntegralNumber() && categoriaId.canConvertToLong())) {
+                    throw new IllegalArgumentException("La categoría debe indicarse como {\"id\": ...}");
+                }
+                campos.put(campo, valor.isNull() ? null : categoriaId.longValue());
+            } else {
+                throw new IllegalArgumentException("El campo " + campo + " no se puede modificar");
+            }
+        }
+
+        Integer stockTotal = (Integer) campos.get("stockTotal");
+        Integer stockDisponible = (Integer) campos.get("stockDisponible");
+        if ((stockTotal != null && stockTotal < 0) || (stockDisponible != null && stockDisponible < 0)
+                || (stockTotal != null && stockDisponible != null && stockDisponible > stockTotal)) {
+            throw new IllegalArgumentException("El stock disponible debe estar entre 0 y el stock total");
+        }
+
+        if (campos.isEmpty()) {
+            return libroRepository.findConCategoriaById(id)
+                    .orElseThrow(() -> new RuntimeException("Libro no encontrado con ID: " + id));
+        }
+
+        // Solo hace falta leer antes el código si cambia, para invalidar la caché por código anterior
+        String codigoAnterior = null;
+        if (campos.containsKey("codigo")) {
+            codigoAnterior = libroRepository.findCodigoById(id)
+                    .orElseThrow(() -> new RuntimeException("Libro no encontrado con ID: " + id));
+        }
+
+        if (libroRepository.actualizarCampos(id, campos) == 0) {
+            if (!libroRepository.existsById(id)) {
+                throw new RuntimeException("Libro no encontrado con ID: " + id);
+            }
+            throw new IllegalStateException("El stock disponible no puede superar el stock total");
+        }
+
+        Libro libro = libroRepository.findConCategoriaById(id)
+                .orElseThrow(() -> new RuntimeException("Libro no encontrado con ID: " + id));
+        eventPublisher.publishEvent(codigoAnterior == null
+                ? LibroCambiadoEvento.actualizado(libro)
+                : LibroCambiadoEvento.actualizado(libro, codigoAnterior));
+        return libro;
     }
 
     @Override
+    @Transactional
     public void eliminar(Long id) {
-        libroRepository.deleteById(id);
+        // Se carga antes de borrar (deleteById ya lo hacía internamente) para conocer su código
+        libroRepository.findById(id).ifPresent(libro -> {
+            libroRepository.delete(libro);
+            // Marca de borrado para /libros/cambios, en la misma transacción que el DELETE
+            libroEliminadoRepository.save(new LibroEliminado(id, libro.getCodigo()));
+            // Los oyentes lo reciben al confirmarse el DELETE (ver LibroCambiadoEvento)
+            eventPublisher.publishEvent(LibroCambiadoEvento.eliminado(id, libro.getCodigo()));
+        });
     }
 
     @Override
@@ -92,22 +387,54 @@ public class LibroServiceImpl implements LibroService {
                 .orElseThrow(() -> new RuntimeException("Libro no encontrado"));
 
         libro.setEstado(false);
-        libroRepository.save(libro);
+        Libro guardado = libroRepository.save(libro);
+        eventPublisher.publishEvent(LibroCambiadoEvento.actualizado(guardado));
     }
 
     @Override
     public Libro actualizarCantidad(Long id, Integer nuevaCantidad) {
-        // Este método ahora actualiza stockTotal
-        Libro libro = libroRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Libro no encontrado con ID: " + id));
+        // Este método ahora actualiza stockTotal; el disponible nunca queda por encima del total.
+        // Se hace en un solo UPDATE para no pisar préstamos o devoluciones concurrentes.
+        if (libroRepository.actualizarStockTotal(id, nuevaCantidad) == 0) {
+            throw new RuntimeException("Libro no encontrado con ID: " + id);
+        }
+        return publicarStockActualizado(id);
+    }
+
+    @Override
+    public Libro reservar(Long id, int cantidad) {
+        if (cantidad <= 0) {
+            throw new IllegalArgumentException("La cantidad debe ser mayor a cero");
+        }
+        if (libroRepository.reservarStock(id, cantidad) == 0) {
+            if (!libroRepository.existsById(id)) {
+                throw new RuntimeException("Libro no encontrado con ID: " + id);
+            }
+            throw new IllegalStateException("Stock disponible insuficiente");
+        }
+        return publicarStockActualizado(id);
+    }
 
-        libro.setStockTotal(nuevaCantidad);
-        // opcional: recalcular disponible
-        if (libro.getStockDisponible() > nuevaCantidad) {
-            libro.setStockDisponible(nuevaCantidad);
+    @Override
+    public Libro devolver(Long id, int cantidad) {
+        if (cantidad <= 0) {
+            throw new IllegalArgumentException("La cantidad debe ser mayor a cero");
+        }
+        if (libroRepository.devolverStock(id, cantidad) == 0) {
+            if (!libroRepository.existsById(id)) {
+                throw new RuntimeException("Libro no encontrado con ID: " + id);
+            }
+            throw new IllegalStateException("La devolución supera el stock total");
         }
+        return publicarStockActualizado(id);
+    }
 
-        return libroRepository.save(libro);
+    // Relee el libro ya confirmado para devolverlo y avisar a índices y cachés del nuevo stock
+    private Libro publicarStockActualizado(Long id) {
+        Libro libro = libroRepository.findConCategoriaById(id)
+                .orElseThrow(() -> new RuntimeException("Libro no encontrado con ID: " + id));
+        eventPublisher.publishEvent(LibroCambiadoEvento.actualizado(libro));
+        return libro;
     }
 
     @Override
@@ -116,6 +443,7 @@ public class LibroServiceImpl implements LibroService {
         Libro libro = libroRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Libro no encontrado"));
 
+        String codigoAnterior = libro.getCodigo();
         libro.setCodigo(libroActualizado.getCodigo());
         libro.setTitulo(libroActualizado.getTitulo());
         libro.setDescripcion(libroActualizado.getDescripcion());
@@ -129,23 +457,47 @@ public class LibroServiceImpl implements LibroService {
         libro.setEstado(libroActualizado.isEstado());
 
         // Guardar nueva portada si llega
-        if (nuevaImagen != null && !nuevaImagen.isEmpty()) {
-            try {
-                Files.createDirectories(Paths.get(RUTA_IMAGENES));
-                String nombreArchivo = UUID.randomUUID() + "_" + nuevaImagen.getOriginalFilename();
-                Path rutaArchivo = Paths.get(RUTA_IMAGENES).resolve(nombreArchivo);
-                Files.copy(nuevaImagen.getInputStream(), rutaArchivo, StandardCopyOption.REPLACE_EXISTING);
-                libro.setPortada(nombreArchivo);
-            } catch (IOException e) {
-                throw new RuntimeException("Error al guardar la nueva portada: " + e.getMessage());
-            }
+        boolean nuevaPortada = nuevaImagen != null && !nuevaImagen.isEmpty();
+        if (nuevaPortada) {
+            libro.setPortada(portadaService.guardar(nuevaImagen));
+            libro.setPortadaVariantes(null);
         }
 
-        return libroRepository.save(libro);
+        Libro guardado = libroRepository.save(libro);
+        eventPublisher.publishEvent(LibroCambiadoEvento.actualizado(guardado, codigoAnterior));
+
+        if (nuevaPortada) {
+            portadaService.generarVariantes(guardado.getPortada());
+        }
+        return guardado;
     }
 
     @Override
     public Optional<Libro> buscarPorCodigo(String codigo) {
-        return libroRepository.findByCodigo(codigo);
+        return leerConCache(CacheLibrosConfig.LIBROS_POR_CODIGO, codigo, () -> libroRepository.findByCodigo(codigo));
+    }
+
+    @Override
+    public List<ResultadoBusquedaDto> buscar(String consulta, Integer limite) {
+        int tamanio = (limite == null || limite <= 0) ? LIMITE_BUSQUEDA_POR_DEFECTO : Math.min(limite, LIMITE_MAXIMO);
+        // Se resuelve por completo en memoria, sin consultar PostgreSQL
+        return indiceInvertidoLibros.buscar(consulta, tamanio);
+    }
+
+    @Override
+    public List<SugerenciaDto> sugerir(String texto, Integer limite) {
+        int tamanio = (limite == null || limite <= 0)
+                ? LIMITE_SUGERENCIAS_POR_DEFECTO
+                : Math.min(limite, LIMITE_SUGERENCIAS_MAXIMO);
+        return trieSugerencias.sugerir(texto, tamanio);
+    }
+
+    @Override
+    public FacetasDto facetas(String consulta, Integer limite) {
+        int tamanio = (limite == null || limite <= 0) ? LIMITE_FACETAS_POR_DEFECTO : Math.min(limite, LIMITE_MAXIMO);
+        // Igual que la búsqueda, todo en memoria
+        return consulta == null || consulta.isBlank()
+                ? facetasLibros.contar(null, tamanio)
+                : facetasLibros.contar(indiceInvertidoLibros.coincidencias(consulta), tamanio);
     }
 }
@@ -0,0 +1,155 @@
+package com.example.mscatalogo.service.serviceImpl;
+
+import com.example.mscatalogo.dto.CambiosLibrosDto;
+import com.example.mscatalogo.entity.Libro;
+import com.example.mscatalogo.entity.LibroEliminado;
+import com.example.mscatalogo.repository.LibroEliminadoRepository;
+import com.example.mscatalogo.repository.LibroRepository;
+import com.example.mscatalogo.service.LibroSincronizacionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Sincronización incremental del catálogo. El token es la marca (fecha, id) de lo último entregado,
+ * una para libros y otra para eliminados, así cada consulta recorre solo el índice desde ahí.
+ *
+ * Las fechas se asignan antes del commit, así que una escritura lenta puede aparecer con una fecha
+ * anterior a algo ya entregado. Por eso solo se entregan cambios con algunos segundos de antigüedad:
+ * lo más reciente queda para la próxima consulta.
+ */
+@Service
+public class LibroSincronizacionServiceImpl implements LibroSincronizacionService {
+
+    private static final Logger log = LoggerFactory.getLogger(LibroSincronizacionServiceImpl.class);
+
+    private static final int LIMITE_POR_DEFECTO = 500;
+    private static final int LIMITE_MAXIMO = 2000;
+
+    // Anterior a cualquier libro; PostgreSQL no acepta LocalDateTime.MIN
+    private static final LocalDateTime INICIO = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final LibroRepository libroRepository;
+    private final LibroEliminadoRepository libroEliminadoRepository;
+    private final Duration margen;
+    private final Duration retencion;
+
+    public LibroSincronizacionServiceImpl(LibroRepository libroRepository,
+                                          LibroEliminadoRepository libroEliminadoRepository,
+                                          @Value("${catalogo.cambios.margen-segundos:5}") long margenSegundos,
+                                          @Value("${catalogo.cambios.retencion-dias:30}") long retencionDias) {
+        this.libroRepository = libroRepository;
+        this.libroEliminadoRepository = libroEliminadoRepository;
+        this.margen = Duration.ofSeconds(margenSegundos);
+        this.retencion = Duration.ofDays(retencionDias);
+    }
+
+    @Override
+    public CambiosLibrosDto cambios(String desde, Integer limite) {
+        int tamanio = (limite == null || limite <= 0) ? LIMITE_POR_DEFECTO : Math.min(limite, LIMITE_MAXIMO);
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime hasta = ahora.minus(margen);
+
+        Marca marca = decodificar(desde);
+        boolean reiniciar = false;
+        if (marca != null && marca.fechaEliminados.isBefore(ahora.minus(retencion))) {
+            // Los borrados de ese período ya se purgaron: la copia del cliente no se puede corregir
+            reiniciar = true;
+            marca = null;
+        }
+        if (marca == null) {
+            // Copia completa: todos los libros, y de los borrados solo los que ocurran desde ahora
+            marca = new Marca(INICIO, 0L, hasta, Long.MAX_VALUE);
+        }
+
+        // Un registro extra por lista solo para saber si queda algo más
+        List<Libro> libros = libroRepository.buscarCambios(
+                marca.fechaLibros, marca.idLibros, hasta, PageRequest.of(0, tamanio + 1));
+        List<LibroEliminado> eliminados = libroEliminadoRepository.buscarCambios(
+                marca.fechaEliminados, marca.idEliminados, hasta, PageRequest.of(0, tamanio + 1));
+
+        boolean quedanEliminados = eliminados.size() > tamanio;
+        boolean hayMas = libros.size() > tamanio || quedanEliminados;
+        if (libros.size() > tamanio) {
+            libros = libros.subList(0, tamanio);
+        }
+        if (quedanEliminados) {
+            eliminados = eliminados.subList(0, tamanio);
+        }
+
+        // Sin resultados la marca de libros no avanza hasta "hasta": una escritura lenta todavía podría caer antes
+        Marca siguiente = new Marca(marca.fechaLibros, marca.idLibros, marca.fechaEliminados, marca.idEliminados);
+        if (!libros.isEmpty()) {
+            Libro ultimo = libros.get(libros.size() - 1);
+            siguiente.fechaLibros = ultimo.getFechaActualizacion();
+            siguiente.idLibros = ultimo.getId();
+        }
+        if (quedanEliminados) {
+            LibroEliminado ultimo = eliminados.get(eliminados.size() - 1);
+            siguiente.fechaEliminados = ultimo.getFechaEliminacion();
+            siguiente.idEliminados = ultimo.getId();
+        } else {
+            // La de eliminados sí, igual que en la copia completa: si se quedara en el último borrado,
+            // un cliente al día en un catálogo sin borrados recibiría un reinicio al pasar la retención
+            siguiente.fechaEliminados = hasta;
+            siguiente.idEliminados = Long.MAX_VALUE;
+        }
+
+        return new CambiosLibrosDto(libros, eliminados, codificar(siguiente), hayMas, reiniciar);
+    }
+
+    @Override
+    @Scheduled(cron = "${catalogo.cambios.purga-cron:0 30 3 * * *}")
+    public int purgarEliminados() {
+        int borrados = libroEliminadoRepository.borrarAnterioresA(LocalDateTime.now().minus(retencion));
+        if (borrados > 0) {
+            log.info("Purga de marcas de borrado: {} eliminadas", borrados);
+        }
+        return borrados;
+    }
+
+    private String codificar(Marca marca) {
+        String valor = marca.fechaLibros + "|" + marca.idLibros + "|" + marca.fechaEliminados + "|" + marca.idEliminados;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Marca decodificar(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (partes.length != 4) {
+                throw new IllegalArgumentException("Token inválido");
+            }
+            return new Marca(LocalDateTime.parse(partes[0]), Long.parseLong(partes[1]),
+                    LocalDateTime.parse(partes[2]), Long.parseLong(partes[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Token inválido");
+        }
+    }
+
+    private static final class Marca {
+        private LocalDateTime fechaLibros;
+        private Long idLibros;
+        private LocalDateTime fechaEliminados;
+        private Long idEliminados;
+
+        private Marca(LocalDateTime fechaLibros, Long idLibros, LocalDateTime fechaEliminados, Long idEliminados) {
+            this.fechaLibros = fechaLibros;
+            this.idLibros = idLibros;
+            this.fechaEliminados = fechaEliminados;
+            this.idEliminados = idEliminados;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.mscatalogo.service.serviceImpl;
+
+import com.example.mscatalogo.config.AsyncConfig;
+import com.example.mscatalogo.entity.Libro;
+import com.example.mscatalogo.evento.LibroCambiadoEvento;
+import com.example.mscatalogo.repository.LibroRepository;
+import com.example.mscatalogo.service.PortadaService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Almacén de portadas direccionado por contenido: cada archivo se guarda como
+ * {raiz}/ab/cd/{sha256}.{ext}, así la misma imagen subida para varias ediciones ocupa un solo archivo.
+ * Las referencias son las filas de libro que apuntan a cada portada; el barrido periódico borra
+ * las que ya no tienen ninguna.
+ */
+@Service
+public class PortadaServiceImpl implements PortadaService {
+
+    private static final Logger log = LoggerFactory.getLogger(PortadaServiceImpl.class);
+
+    private static final String DIRECTORIO_TEMPORAL = "tmp";
+    private static final int NOMBRES_POR_CONSULTA = 500;
+
+    // Ancho máximo de cada variante; nunca se agranda una imagen más chica
+    private static final Map<String, Integer> ANCHOS = new LinkedHashMap<>();
+
+    static {
+        ANCHOS.put(VARIANTE_PEQUENA, 160);
+        ANCHOS.put(VARIANTE_MEDIANA, 400);
+        ANCHOS.put(VARIANTE_GRANDE, 800);
+    }
+
+    private final LibroRepository libroRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Path raiz;
+    private final Duration gracia;
+
+    public PortadaServiceImpl(LibroRepository libroRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${catalogo.portadas.ruta}") String ruta,
+                              @Value("${catalogo.portadas.gracia-minutos:60}") long graciaMinutos) {
+        this.libroRepository = libroRepository;
+        this.eventPublisher = eventPublisher;
+        this.raiz = Paths.get(ruta).toAbsolutePath().normalize();
+        this.gracia = Duration.ofMinutes(graciaMinutos);
+    }
+
+    @Override
+    public String guardar(MultipartFile imagen) {
+        try {
+            Path temporales = raiz.resolve(DIRECTORIO_TEMPORAL);
+            Files.createDirectories(temporales);
+            Path temporal = Files.createTempFile(temporales, "subida", ".tmp");
+
+            try {
+                // El hash se calcula mientras se copia: el archivo se lee una sola vez
+                MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+                try (InputStream entrada = new DigestInputStream(imagen.getInputStream(), sha256)) {
+                    Files.copy(entrada, temporal, StandardCopyOption.REPLACE_EXISTING);
+                }
+
+                String hash = HexFormat.of().formatHex(sha256.digest());
+                String portada = hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/"
+                        + hash + "." + extension(imagen.getOriginalFilename());
+                Path destino = raiz.resolve(portada);
+
+                if (!renovar(destino)) {
+                    Files.createDirectories(destino.getParent());
+                    Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+                return portada;
+            } finally {
+                Files.deleteIfExists(temporal);
+            }
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Error al guardar la portada: " + e.getMessage());
+        }
+    }
+
+    // Mismo contenido ya guardado: se reutiliza y se renueva la fecha para que el barrido no lo borre
+    // antes de que el libro que lo usa termine de guardarse. False si no existe o el barrido acaba de borrarlo
+    private boolean renovar(Path destino) throws IOException {
+        if (!Files.exists(destino)) {
+            return false;
+        }
+        try {
+            Files.setLastModifiedTime(destino, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    @Override
+    @Async(AsyncConfig.PORTADAS_EXECUTOR)
+    public void generarVariantes(String portada) {
+        Path original = raiz.resolve(portada);
+        String formato = formatoDeSalida(portada);
+
+        try {
+            List<String> generadas = new ArrayList<>();
+            BufferedImage imagen = null;
+
+            for (Map.Entry<String, Integer> variante : ANCHOS.entrySet()) {
+                Path destino = raiz.resolve(variante.getKey()).resolve(portada);
+                // Una portada deduplicada ya tiene sus variantes
+                if (Files.exists(destino)) {
+                    generadas.add(variante.getKey());
+                    continue;
+                }
+
+                if (imagen == null) {
+                    imagen = ImageIO.read(original.toFile());
+                    if (imagen == null) {
+                        log.warn("No se pudo leer la portada {} para generar variantes", portada);
+                        return;
+                    }
+                }
+
+                BufferedImage redimensionada = redimensionar(imagen, variante.getValue(), !"jpg".equals(formato));
+                Files.createDirectories(destino.getParent());
+
+                // Se escribe a un temporal y se mueve, para no servir nunca un archivo a medias
+                Path temporal = Files.createTempFile(destino.getParent(), "variante", ".tmp");
+                try {
+                    ImageIO.write(redimensionada, formato, temporal.toFile());
+                    Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(temporal);
+                }
+                generadas.add(variante.getKey());
+            }
+
+            libroRepository.registrarVariantesPortada(portada, String.join(",", generadas));
+            for (Libro libro : libroRepository.findByPortada(portada)) {
+                eventPublisher.publishEvent(LibroCambiadoEvento.actualizado(libro));
+            }
+        } catch (IOException | RuntimeException e) {
+            // Sin variantes el libro sigue mostrando la portada original
+            log.error("Error al generar variantes de la portada {}", portada, e);
+        }
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${catalogo.portadas.barrido-ms:3600000}",
+            fixedDelayString = "${catalogo.portadas.barrido-ms:3600000}")
+    public int recolectarHuerfanas() {
+        if (!Files.isDirectory(raiz)) {
+            return 0;
+        }
+        Instant limite = Instant.now().minus(gracia);
+        Set<String> directoriosExcluidos = new HashSet<>(ANCHOS.keySet());
+        directoriosExcluidos.add(DIRECTORIO_TEMPORAL);
+
+        int borradas = 0;
+        List<String> candidatas = new ArrayList<>(NOMBRES_POR_CONSULTA);
+        try (Stream<Path> archivos = Files.walk(raiz)) {
+            for (Path archivo : (Iterable<Path>) archivos::iterator) {
+                Path relativa = raiz.relativize(archivo);
+                if (relativa.getNameCount() == 0
+                        || directoriosExcluidos.contains(relativa.getName(0).toString())
+                        || !Files.isRegularFile(archivo)
+                        || Files.getLastModifiedTime(archivo).toInstant().isAfter(limite)) {
+                    continue;
+                }
+                candidatas.add(relativa.toString().replace('\\', '/'));
+                if (candidatas.size() == NOMBRES_POR_CONSULTA) {
+                    borradas += borrarSinReferencias(candidatas, limite);
+                    candidatas.clear();
+                }
+            }
+            borradas += borrarSinReferencias(candidatas, limite);
+        } catch (IOException e) {
+            log.error("Error al recorrer el almacén de portadas", e);
+        }
+
+        if (borradas > 0) {
+            log.info("Barrido de portadas: {} archivos huérfanos eliminados", borradas);
+        }
+        return borradas;
+    }
+
+    // Una consulta por grupo de nombres: se borran los que ningún libro referencia
+    private int borrarSinReferencias(List<String> candidatas, Instant limite) throws IOException {
+        if (candidatas.isEmpty()) {
+            return 0;
+        }
+        Set<String> referenciadas = new HashSet<>(libroRepository.findPortadasReferenciadas(candidatas));
+        int borradas = 0;
+        for (String portada : candidatas) {
+            if (referenciadas.contains(portada)) {
+                continue;
+            }
+            // Una subida con el mismo contenido pudo renovarlo después del recorrido y antes de que su
+            // libro se guarde: la consulta no lo ve referenciado, pero la fecha sí lo delata
+            Path original = raiz.resolve(portada);
+            try {
+                if (Files.getLastModifiedTime(original).toInstant().isAfter(limite)) {
+                    continue;
+                }
+            } catch (NoSuchFileException e) {
+                // Ya no está; quedan sus variantes, que el recorrido no visita
+            }
+            Files.deleteIfExists(original);
+            for (String variante : ANCHOS.keySet()) {
+                Files.deleteIfExists(raiz.resolve(variante).resolve(portada));
+            }
+            borradas++;
+        }
+        return borradas;
+    }
+
+    // Solo se conserva una extensión corta y alfanumérica del nombre original
+    private String extension(String nombreOriginal) {
+        if (nombreOriginal != null) {
+            int punto = nombreOriginal.lastIndexOf('.');
+            if (punto >= 0) {
+                String extension = nombreOriginal.substring(punto + 1).toLowerCase(Locale.ROOT);
+                if (extension.matches("[a-z0-9]{1,5}")) {
+                    return extension;
+                }
+            }
+        }
+        return "img";
+    }
+
+    // Escalado por pasos de a la mitad: con una sola pasada bilineal las reducciones grandes se ven dentadas
+    private BufferedImage redimensionar(BufferedImage origen, int anchoMaximo, boolean conTransparencia) {
+        int tipo = conTransparencia ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        int anchoFinal = Math.min(anchoMaximo, origen.getWidth());
+        int altoFinal = Math.max(1, (int) Math.round((double) origen.getHeight() * anchoFinal / origen.getWidth()));
+
+        BufferedImage actual = origen;
+        int ancho = origen.getWidth();
+        int alto = origen.getHeight();
+        do {
+            ancho = Math.max(anchoFinal, ancho / 2);
+            alto = Math.max(altoFinal, alto / 2);
+
+            BufferedImage paso = new BufferedImage(ancho, alto, tipo);
+            Graphics2D g = paso.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(actual, 0, 0, ancho, alto, null);
+            g.dispose();
+            actual = paso;
+        } while (ancho != anchoFinal || alto != altoFinal);
+
+        return actual;
+    }
+
+    // Las variantes conservan el nombre del original y el tipo se sirve según la extensión, así que
+    // PNG y GIF se reescriben en su mismo formato (un GIF animado queda en su primer cuadro); el resto como JPEG
+    private String formatoDeSalida(String nombre) {
+        String minusculas = nombre.toLowerCase(Locale.ROOT);
+        if (minusculas.endsWith(".png")) {
+            return "png";
+        }
+        return minusculas.endsWith(".gif") ? "gif" : "jpg";
+    }
+}
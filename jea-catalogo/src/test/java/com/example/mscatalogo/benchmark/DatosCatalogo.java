@@ -0,0 +1,99 @@
+package com.example.mscatalogo.benchmark;
+
+import com.example.mscatalogo.entity.Categoria;
+import com.example.mscatalogo.entity.Libro;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Catálogo de prueba con forma parecida al real: títulos y descripciones de largo variable,
+ * pocas editoriales que concentran muchos libros, años sesgados a lo reciente y parte del stock agotado.
+ * Siempre genera lo mismo para la misma semilla, así las corridas se pueden comparar.
+ */
+final class DatosCatalogo {
+
+    private static final String[] PALABRAS = {
+            "historia", "sombra", "ciudad", "memoria", "viaje", "río", "noche", "tiempo", "guerra", "amor",
+            "ciencia", "mar", "montaña", "silencio", "casa", "jardín", "fuego", "camino", "libro", "luz",
+            "invierno", "secreto", "palabra", "puerto", "desierto", "isla", "reino", "espejo", "frontera", "voz"
+    };
+
+    private static final String[] EDITORIALES = {
+            "Planeta", "Alfaguara", "Anagrama", "Tusquets", "Seix Barral", "Sudamericana", "Siglo XXI",
+            "Fondo de Cultura Económica", "Cátedra", "Alianza", "Debolsillo", "Salamandra", "Norma",
+            "Peisa", "Ediciones B", "Destino", "Lumen", "Crítica", "Paidós", "Acantilado"
+    };
+
+    private static final String[] NOMBRES = {
+            "Gabriel", "Isabel", "Mario", "Julio", "Laura", "Carmen", "Jorge", "Elena", "Ricardo", "Rosa"
+    };
+
+    private static final String[] APELLIDOS = {
+            "García", "Vargas", "Quispe", "Allende", "Cortázar", "Mamani", "Borges", "Mistral", "Rulfo", "Flores"
+    };
+
+    private DatosCatalogo() {
+    }
+
+    static List<Categoria> categorias(int cantidad) {
+        List<Categoria> categorias = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Categoria categoria = new Categoria();
+            categoria.setNombre("Categoría " + (i + 1));
+            categorias.add(categoria);
+        }
+        return categorias;
+    }
+
+    static List<Libro> libros(int cantidad, List<Categoria> categorias, long semilla) {
+        SplittableRandom azar = new SplittableRandom(semilla);
+        byte[] hash = new byte[32];
+        List<Libro> libros = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Libro libro = new Libro();
+            libro.setCodigo(String.format("LIB-%07d", i));
+            // El título es único en la tabla; el volumen lo desambigua como en una colección real
+            libro.setTitulo(frase(azar, 2 + azar.nextInt(6)) + ", vol. " + (i + 1));
+            libro.setDescripcion(frase(azar, 10 + azar.nextInt(25)));
+            libro.setAutor(NOMBRES[azar.nextInt(NOMBRES.length)] + " "
+                    + APELLIDOS[azar.nextInt(APELLIDOS.length)] + " " + APELLIDOS[azar.nextInt(APELLIDOS.length)]);
+            // Unas pocas editoriales publican la mayoría del catálogo
+            libro.setEditorial(EDITORIALES[(int) (EDITORIALES.length * Math.pow(azar.nextDouble(), 2))]);
+            libro.setIsbn(String.format("978%010d", i));
+            libro.setAnioPublicacion(2024 - (int) (75 * Math.pow(azar.nextDouble(), 2)));
+            int total = 1 + azar.nextInt(10);
+            libro.setStockTotal(total);
+            libro.setStockDisponible(azar.nextInt(4) == 0 ? 0 : azar.nextInt(total + 1));
+            libro.setEstado(azar.nextInt(20) != 0);
+            libro.setFechaCreacion(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i));
+            libro.setFechaActualizacion(libro.getFechaCreacion());
+            libro.setCategoria(categorias.get(azar.nextInt(categorias.size())));
+            if (azar.nextInt(3) != 0) {
+                for (int b = 0; b < hash.length; b++) {
+                    hash[b] = (byte) azar.nextInt(256);
+                }
+                String hex = HexFormat.of().formatHex(hash);
+                libro.setPortada(hex.substring(0, 2) + "/" + hex.substring(2, 4) + "/" + hex + ".jpg");
+                libro.setPortadaVariantes("small,medium,large");
+            }
+            libros.add(libro);
+        }
+        return libros;
+    }
+
+    private static String frase(SplittableRandom azar, int palabras) {
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < palabras; i++) {
+            if (i > 0) {
+                texto.append(' ');
+            }
+            texto.append(PALABRAS[azar.nextInt(PALABRAS.length)]);
+        }
+        texto.setCharAt(0, Character.toUpperCase(texto.charAt(0)));
+        return texto.toString();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.mscatalogo.benchmark;
+
+import com.example.mscatalogo.MsCatalogoApplication;
+import com.example.mscatalogo.entity.Categoria;
+import com.example.mscatalogo.entity.Libro;
+import com.example.mscatalogo.repository.CategoriaRepository;
+import com.example.mscatalogo.repository.LibroRepository;
+import com.example.mscatalogo.service.LibroService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecturas de LibroServiceImpl contra H2 en memoria con el contexto de Spring completo, con y sin
+ * la caché de Caffeine. Los ids y códigos se eligen al azar sobre todo el catálogo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LibroServiceBenchmark {
+
+    @Param({"10000"})
+    public int libros;
+
+    @Param({"caffeine", "none"})
+    public String cache;
+
+    private ConfigurableApplicationContext contexto;
+    private LibroService libroService;
+    private Long[] ids;
+    private String[] codigos;
+
+    @State(Scope.Thread)
+    public static class Azar {
+        private final SplittableRandom azar = new SplittableRandom(42);
+    }
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(MsCatalogoApplication.class)
+                .profiles("test")
+                .properties("server.port=0",
+                        "spring.cache.type=" + cache,
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run();
+        libroService = contexto.getBean(LibroService.class);
+
+        List<Categoria> categorias = contexto.getBean(CategoriaRepository.class)
+                .saveAll(DatosCatalogo.categorias(40));
+        List<Libro> guardados = contexto.getBean(LibroRepository.class)
+                .saveAll(DatosCatalogo.libros(libros, categorias, 1L));
+
+        ids = guardados.stream().map(Libro::getId).toArray(Long[]::new);
+        codigos = guardados.stream().map(Libro::getCodigo).toArray(String[]::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<Libro> listar() {
+        return libroService.listar();
+    }
+
+    @Benchmark
+    public Optional<Libro> obtenerPorId(Azar azar) {
+        return libroService.obtenerPorId(ids[azar.azar.nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public Optional<Libro> buscarPorCodigo(Azar azar) {
+        return libroService.buscarPorCodigo(codigos[azar.azar.nextInt(codigos.length)]);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.mscatalogo.benchmark;
+
+import com.example.mscatalogo.entity.Categoria;
+import com.example.mscatalogo.entity.Libro;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializar una lista de libros como la devuelve GET /libros, en cada formato que ofrece el
+ * catálogo (ver JacksonConfig). "json" es la configuración previa a Blackbird, como referencia.
+ * El tamaño de cada respuesta se imprime al preparar el estado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionLibrosBenchmark {
+
+    @Param({"100", "1000"})
+    public int libros;
+
+    @Param({"json", "json-blackbird", "smile", "cbor"})
+    public String formato;
+
+    private List<Libro> lista;
+    private ObjectWriter writer;
+
+    @Setup
+    public void preparar() throws Exception {
+        List<Categoria> categorias = DatosCatalogo.categorias(40);
+        for (int i = 0; i < categorias.size(); i++) {
+            categorias.get(i).setId((long) i + 1);
+        }
+        lista = DatosCatalogo.libros(libros, categorias, 1L);
+        for (int i = 0; i < lista.size(); i++) {
+            lista.get(i).setId((long) i + 1);
+        }
+
+        writer = mapper(formato).writerFor(lista.getClass());
+        System.out.printf("%n%s, %d libros: %d bytes%n", formato, libros, writer.writeValueAsBytes(lista).length);
+    }
+
+    @Benchmark
+    public byte[] serializar() throws Exception {
+        return writer.writeValueAsBytes(lista);
+    }
+
+    // Igual que el ObjectMapper de Spring Boot: módulos conocidos y fechas como texto ISO
+    private static ObjectMapper mapper(String formato) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (!"json".equals(formato)) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        JsonFactory factory = switch (formato) {
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> null;
+        };
+        if (factory != null) {
+            builder.factory(factory);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.mscatalogo.busqueda;
+
+import com.example.mscatalogo.entity.Libro;
+import com.example.mscatalogo.evento.LibroCambiadoEvento;
+import com.example.mscatalogo.repository.LibroRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.example.mscatalogo.busqueda.IndiceInvertidoLibrosTest.libro;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cambios confirmados mientras el recorrido inicial todavía está leyendo la tabla.
+ */
+class CargadorIndicesLibrosTest {
+
+    private final IndiceInvertidoLibros indice = new IndiceInvertidoLibros();
+    private final LibroRepository libroRepository = mock(LibroRepository.class);
+    private CargadorIndicesLibros cargador;
+
+    @BeforeEach
+    void preparar() {
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocacion -> invocacion.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        cargador = new CargadorIndicesLibros(List.of(indice), libroRepository, transactionTemplate,
+                mock(EntityManager.class));
+    }
+
+    @Test
+    void unaFilaViejaNoPisaUnCambioRecibidoDuranteLaCarga() {
+        Libro otro = libro(2L, "Ensayos", "Autor", null);
+        Libro viejo = libro(1L, "Titulo viejo", "Autor", null);
+        Libro nuevo = libro(1L, "Titulo nuevo", "Autor", null);
+        // El cambio del libro 1 se confirma antes de que el recorrido llegue a su fila, ya leída antes del cambio
+        when(libroRepository.streamTodos()).thenAnswer(invocacion -> Stream.of(otro, viejo).peek(libro -> {
+            if (libro == otro) {
+                cargador.alCambiarLibro(LibroCambiadoEvento.actualizado(nuevo));
+            }
+        }));
+
+        cargador.cargar();
+
+        assertEquals(Set.of(1L), indice.coincidencias("nuevo"));
+        assertEquals(Set.of(), indice.coincidencias("viejo"));
+    }
+
+    @Test
+    void unBorradoDuranteLaCargaSeAplicaAlTerminar() {
+        Libro borrado = libro(1L, "Poemas", "Autor", null);
+        Libro otro = libro(2L, "Poemas completos", "Autor", null);
+        when(libroRepository.streamTodos()).thenAnswer(invocacion -> Stream.of(borrado, otro).peek(libro -> {
+            if (libro == otro) {
+                cargador.alCambiarLibro(LibroCambiadoEvento.eliminado(1L, "COD-1"));
+            }
+        }));
+
+        cargador.cargar();
+
+        assertEquals(Set.of(2L), indice.coincidencias("poemas"));
+    }
+
+    @Test
+    void despuesDeLaCargaLosCambiosSeAplicanEnElActo() {
+        when(libroRepository.streamTodos()).thenAnswer(invocacion -> Stream.empty());
+        cargador.cargar();
+
+        cargador.alCambiarLibro(LibroCambiadoEvento.creado(libro(3L, "Fábulas", "Autor", null)));
+
+        assertEquals(Set.of(3L), indice.coincidencias("fabulas"));
+    }
+}
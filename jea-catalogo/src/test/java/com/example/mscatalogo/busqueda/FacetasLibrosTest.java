@@ -0,0 +1,123 @@
+package com.example.mscatalogo.busqueda;
+
+import com.example.mscatalogo.dto.ConteoFacetaDto;
+import com.example.mscatalogo.dto.FacetasDto;
+import com.example.mscatalogo.entity.Categoria;
+import com.example.mscatalogo.entity.Libro;
+import com.example.mscatalogo.evento.CategoriaCambiadaEvento;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FacetasLibrosTest {
+
+    private final FacetasLibros facetas = new FacetasLibros();
+
+    private final Categoria novela = new Categoria(1L, "Novela", true, null);
+    private final Categoria poesia = new Categoria(2L, "Poesía", true, null);
+
+    @Test
+    void actualizarRestaElAporteAnteriorYSumaElNuevo() {
+        facetas.indexar(libro(1L, novela, "Planeta", 1985, 3));
+        facetas.indexar(libro(2L, novela, "Planeta", 1999, 0));
+
+        facetas.indexar(libro(2L, poesia, " planeta ", 2004, 1));
+
+        FacetasDto conteos = facetas.contar(null, 10);
+        assertEquals(2, conteos.getTotal());
+        assertEquals(2, conteos.getDisponibles());
+        assertEquals(Map.of("Novela", 1, "Poesía", 1), cantidades(conteos.getCategorias()));
+        assertEquals(Map.of("Planeta", 2), cantidades(conteos.getEditoriales()));
+        assertEquals(Map.of("2000-2009", 1, "1980-1989", 1), cantidades(conteos.getDecadas()));
+    }
+
+    @Test
+    void desactivarYEliminarDejanDeContar() {
+        facetas.indexar(libro(1L, novela, "Planeta", 1985, 3));
+        facetas.indexar(libro(2L, poesia, "Anagrama", 1999, 2));
+        facetas.indexar(libro(3L, poesia, "Anagrama", 1991, 0));
+
+        Libro inactivo = libro(1L, novela, "Planeta", 1985, 3);
+        inactivo.setEstado(false);
+        facetas.indexar(inactivo);
+        facetas.eliminar(3L);
+
+        FacetasDto conteos = facetas.contar(null, 10);
+        assertEquals(1, conteos.getTotal());
+        assertEquals(1, conteos.getDisponibles());
+        assertEquals(Map.of("Poesía", 1), cantidades(conteos.getCategorias()));
+        assertEquals(Map.of("Anagrama", 1), cantidades(conteos.getEditoriales()));
+        assertEquals(Map.of("1990-1999", 1), cantidades(conteos.getDecadas()));
+
+        // Eliminar dos veces, o algo que no estaba, no resta de más
+        facetas.eliminar(3L);
+        facetas.eliminar(1L);
+        assertEquals(1, facetas.contar(null, 10).getTotal());
+    }
+
+    @Test
+    void conConsultaSoloCuentaLosLibrosQueCoinciden() {
+        IndiceInvertidoLibros indice = new IndiceInvertidoLibros();
+        List<Libro> libros = List.of(
+                libro(1L, novela, "Planeta", 1985, 3),
+                libro(2L, poesia, "Anagrama", 1999, 0),
+                libro(3L, poesia, "Anagrama", 2004, 1));
+        libros.get(0).setTitulo("Crónica del mar");
+        libros.get(1).setTitulo("Versos del mar");
+        libros.get(2).setTitulo("Versos de la montaña");
+        for (Libro libro : libros) {
+            indice.indexar(libro);
+            facetas.indexar(libro);
+        }
+
+        FacetasDto conteos = facetas.contar(indice.coincidencias("mar"), 10);
+
+        assertEquals(2, conteos.getTotal());
+        assertEquals(1, conteos.getDisponibles());
+        assertEquals(Map.of("Novela", 1, "Poesía", 1), cantidades(conteos.getCategorias()));
+        assertEquals(Map.of("1990-1999", 1, "1980-1989", 1), cantidades(conteos.getDecadas()));
+        assertEquals(3, facetas.contar(null, 10).getTotal());
+    }
+
+    @Test
+    void respetaElLimiteOrdenandoPorCantidad() {
+        facetas.indexar(libro(1L, novela, "Planeta", 1985, 1));
+        facetas.indexar(libro(2L, novela, "Anagrama", 1985, 1));
+        facetas.indexar(libro(3L, poesia, "Anagrama", 1985, 1));
+
+        FacetasDto conteos = facetas.contar(null, 1);
+
+        assertEquals(Map.of("Anagrama", 2), cantidades(conteos.getEditoriales()));
+        assertEquals(Map.of("Novela", 2), cantidades(conteos.getCategorias()));
+    }
+
+    @Test
+    void categoriaEliminadaOlvidaSuNombre() {
+        facetas.indexar(libro(1L, novela, "Planeta", 1985, 1));
+
+        facetas.alCambiarCategoria(CategoriaCambiadaEvento.actualizada(new Categoria(1L, "Narrativa", true, null)));
+        assertEquals(Map.of("Narrativa", 1), cantidades(facetas.contar(null, 10).getCategorias()));
+
+        facetas.alCambiarCategoria(CategoriaCambiadaEvento.eliminada(1L));
+        assertEquals(Map.of("1", 1), cantidades(facetas.contar(null, 10).getCategorias()));
+    }
+
+    private static Libro libro(Long id, Categoria categoria, String editorial, Integer anio, Integer stock) {
+        Libro libro = IndiceInvertidoLibrosTest.libro(id, "Titulo " + id, "Autor " + id, null);
+        libro.setCategoria(categoria);
+        libro.setEditorial(editorial);
+        libro.setAnioPublicacion(anio);
+        libro.setStockDisponible(stock);
+        return libro;
+    }
+
+    private static Map<String, Integer> cantidades(List<ConteoFacetaDto> conteos) {
+        Map<String, Integer> porEtiqueta = new LinkedHashMap<>();
+        conteos.forEach(c -> porEtiqueta.put(c.getEtiqueta(), c.getCantidad()));
+        return porEtiqueta;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.mscatalogo.busqueda;
+
+import com.example.mscatalogo.dto.ResultadoBusquedaDto;
+import com.example.mscatalogo.entity.Libro;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndiceInvertidoLibrosTest {
+
+    private final IndiceInvertidoLibros indice = new IndiceInvertidoLibros();
+
+    @Test
+    void elTituloPesaMasQueLaDescripcion() {
+        indice.indexar(libro(1L, "Historia del mar", "Ana Ruiz", "Un viaje"));
+        indice.indexar(libro(2L, "Un viaje", "Luis Soto", "Historia de un pescador"));
+
+        List<ResultadoBusquedaDto> resultados = indice.buscar("historia", 10);
+
+        assertEquals(List.of(1L, 2L), resultados.stream().map(ResultadoBusquedaDto::getId).toList());
+        assertTrue(resultados.get(0).getPuntaje() > resultados.get(1).getPuntaje());
+    }
+
+    @Test
+    void respetaElLimite() {
+        for (long id = 1; id <= 5; id++) {
+            indice.indexar(libro(id, "Poemas " + id, "Autor", null));
+        }
+
+        assertEquals(2, indice.buscar("poemas", 2).size());
+        assertEquals(0, indice.buscar("poemas", 0).size());
+    }
+
+    @Test
+    void reindexarReemplazaLosTerminosAnteriores() {
+        indice.indexar(libro(1L, "Rayuela", "Julio Cortázar", null));
+        indice.indexar(libro(1L, "Bestiario", "Julio Cortázar", null));
+
+        assertEquals(Set.of(), indice.coincidencias("rayuela"));
+        assertEquals(Set.of(1L), indice.coincidencias("bestiario"));
+        assertEquals(1, indice.totalDocumentos());
+    }
+
+    @Test
+    void desactivarLoQuitaDeLaBusqueda() {
+        indice.indexar(libro(1L, "Rayuela", "Julio Cortázar", null));
+        indice.indexar(libro(2L, "Rayuela comentada", "Ana Ruiz", null));
+
+        Libro inactivo = libro(1L, "Rayuela", "Julio Cortázar", null);
+        inactivo.setEstado(false);
+        indice.indexar(inactivo);
+
+        assertEquals(List.of(2L), indice.buscar("rayuela", 10).stream().map(ResultadoBusquedaDto::getId).toList());
+        assertEquals(1, indice.totalDocumentos());
+
+        // Un libro que llega inactivo desde el principio tampoco entra
+        Libro nuevoInactivo = libro(3L, "Rayuela ilustrada", "Luis Soto", null);
+        nuevoInactivo.setEstado(false);
+        indice.indexar(nuevoInactivo);
+        assertEquals(Set.of(2L), indice.coincidencias("rayuela"));
+    }
+
+    @Test
+    void eliminarDelMedioNoPierdeALosDemas() {
+        // Los cinco comparten "cuentos"; quitar uno mueve otra aparición a su lugar en la lista
+        for (long id = 1; id <= 5; id++) {
+            indice.indexar(libro(id, "Cuentos " + id, "Autor " + id, null));
+        }
+
+        indice.eliminar(2L);
+        indice.eliminar(4L);
+        assertEquals(Set.of(1L, 3L, 5L), indice.coincidencias("cuentos"));
+
+        // Las posiciones actualizadas al mover deben seguir sirviendo para quitar y reindexar
+        indice.indexar(libro(5L, "Novela 5", "Autor 5", null));
+        indice.eliminar(1L);
+        assertEquals(Set.of(3L), indice.coincidencias("cuentos"));
+        assertEquals(Set.of(5L), indice.coincidencias("novela"));
+        assertEquals(2, indice.totalDocumentos());
+    }
+
+    @Test
+    void buscaSinTildesNiMayusculas() {
+        indice.indexar(libro(1L, "La canción de Roland", "Anónimo", null));
+
+        assertEquals(1, indice.buscar("CANCION anonimo", 10).size());
+    }
+
+    static Libro libro(Long id, String titulo, String autor, String descripcion) {
+        Libro libro = new Libro();
+        libro.setId(id);
+        libro.setCodigo("COD-" + id);
+        libro.setTitulo(titulo);
+        libro.setAutor(autor);
+        libro.setDescripcion(descripcion);
+        return libro;
+    }
+}
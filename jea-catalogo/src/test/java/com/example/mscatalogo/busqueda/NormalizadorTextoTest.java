@@ -0,0 +1,29 @@
+package com.example.mscatalogo.busqueda;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NormalizadorTextoTest {
+
+    @Test
+    void quitaTildesYMayusculas() {
+        assertEquals("cancion pinguino", NormalizadorTexto.normalizar("  Canción PINGÜINO "));
+    }
+
+    @Test
+    void textoNuloEsVacio() {
+        assertEquals("", NormalizadorTexto.normalizar(null));
+        assertEquals(List.of(), NormalizadorTexto.tokenizar(null));
+    }
+
+    @Test
+    void separaPorSignosYDescartaPalabrasVacias() {
+        assertEquals(List.of("cien", "anos", "soledad", "1967"),
+                NormalizadorTexto.tokenizar("Cien años de soledad (1967)"));
+        assertEquals(List.of("nandu", "rio", "plata"),
+                NormalizadorTexto.tokenizar("El ñandú, del Río de la Plata."));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.mscatalogo.cache;
+
+import com.example.mscatalogo.entity.Libro;
+import com.example.mscatalogo.evento.LibroCambiadoEvento;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class InvalidadorCacheLibrosTest {
+
+    private final ConcurrentMapCacheManager cacheManager =
+            new ConcurrentMapCacheManager(CacheLibrosConfig.LIBROS_POR_ID, CacheLibrosConfig.LIBROS_POR_CODIGO);
+
+    private final InvalidadorCacheLibros invalidador = new InvalidadorCacheLibros(cacheManager);
+
+    @Test
+    void guardaLoLeidoSiNadaCambio() {
+        Libro libro = libro(1L, 5);
+
+        invalidador.guardar(CacheLibrosConfig.LIBROS_POR_ID, 1L, libro, invalidador.marca());
+
+        assertSame(libro, porId().get(1L).get());
+    }
+
+    @Test
+    void noGuardaLaFilaViejaSiUnCambioSeConfirmoMientrasSeLeia() {
+        // La lectura toma la marca y lee stock 5; antes de guardar se confirma una reserva
+        long marca = invalidador.marca();
+        Libro leido = libro(1L, 5);
+        invalidador.alCambiarLibro(LibroCambiadoEvento.actualizado(libro(1L, 4)));
+
+        invalidador.guardar(CacheLibrosConfig.LIBROS_POR_ID, 1L, leido, marca);
+        invalidador.guardar(CacheLibrosConfig.LIBROS_POR_CODIGO, "COD-1", leido, marca);
+
+        assertNull(porId().get(1L));
+        assertNull(cacheManager.getCache(CacheLibrosConfig.LIBROS_POR_CODIGO).get("COD-1"));
+    }
+
+    @Test
+    void guardaElNoExiste() {
+        invalidador.guardar(CacheLibrosConfig.LIBROS_POR_ID, 7L, null, invalidador.marca());
+
+        Cache.ValueWrapper valor = porId().get(7L);
+        assertNull(valor.get());
+    }
+
+    private Cache porId() {
+        return cacheManager.getCache(CacheLibrosConfig.LIBROS_POR_ID);
+    }
+
+    private static Libro libro(Long id, int stock) {
+        Libro libro = new Libro();
+        libro.setId(id);
+        libro.setCodigo("COD-" + id);
+        libro.setStockDisponible(stock);
+        return libro;
+    }
+}
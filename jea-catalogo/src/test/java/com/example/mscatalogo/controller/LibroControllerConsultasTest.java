@@ -0,0 +1,208 @@
+package com.example.mscatalogo.controller;
+
+import com.example.mscatalogo.busqueda.CargadorIndicesLibros;
+import com.example.mscatalogo.entity.Categoria;
+import com.example.mscatalogo.entity.Libro;
+import com.example.mscatalogo.repository.CategoriaRepository;
+import com.example.mscatalogo.repository.LibroRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cada endpoint de lectura debe resolver libro y categoría en una sola sentencia,
+ * sin importar cuántos libros devuelva.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LibroControllerConsultasTest {
+
+    private static final int TOTAL_LIBROS = 12;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CargadorIndicesLibros cargadorIndicesLibros;
+
+    private Long primerId;
+
+    @BeforeEach
+    void prepararDatos() {
+        libroRepository.deleteAll();
+        categoriaRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(nombre -> cacheManager.getCache(nombre).clear());
+
+        Categoria[] categorias = new Categoria[3];
+        for (int i = 0; i < categorias.length; i++) {
+            Categoria categoria = new Categoria();
+            categoria.setNombre("Categoria " + i);
+            categorias[i] = categoriaRepository.save(categoria);
+        }
+
+        for (int i = 0; i < TOTAL_LIBROS; i++) {
+            Libro libro = new Libro();
+            libro.setCodigo("COD-" + i);
+            libro.setTitulo("Titulo " + i);
+            libro.setAutor("Autor " + i);
+            libro.setStockTotal(5);
+            libro.setStockDisponible(i % 2);
+            libro.setCategoria(categorias[i % categorias.length]);
+            Libro guardado = libroRepository.save(libro);
+            if (primerId == null || guardado.getId() < primerId) {
+                primerId = guardado.getId();
+            }
+        }
+
+        estadisticas().clear();
+    }
+
+    @Test
+    void listarUsaUnaSolaSentencia() throws Exception {
+        mockMvc.perform(get("/libros"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(TOTAL_LIBROS))
+                .andExpect(jsonPath("$[0].categoria.nombre").exists());
+
+        assertEquals(1, estadisticas().getPrepareStatementCount());
+    }
+
+    @Test
+    void listarPaginadoUsaUnaSolaSentencia() throws Exception {
+        mockMvc.perform(get("/libros/pagina").param("limite", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido.length()").value(5))
+                .andExpect(jsonPath("$.contenido[0].categoria.nombre").exists());
+
+        assertEquals(1, estadisticas().getPrepareStatementCount());
+    }
+
+    @Test
+    void filtroDeAutorTomaLosComodinesLiterales() throws Exception {
+        mockMvc.perform(get("/libros/pagina").param("autor", "r 1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido.length()").value(3));
+
+        // Sin escapar, "_" coincidiría con el espacio de "Autor 1", "Autor 10" y "Autor 11"
+        mockMvc.perform(get("/libros/pagina").param("autor", "r_1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido.length()").value(0));
+    }
+
+    @Test
+    void obtenerPorIdUsaUnaSolaSentencia() throws Exception {
+        mockMvc.perform(get("/libros/{id}", primerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categoria.nombre").exists());
+
+        assertEquals(1, estadisticas().getPrepareStatementCount());
+    }
+
+    @Test
+    void buscarPorCodigoUsaUnaSolaSentencia() throws Exception {
+        mockMvc.perform(get("/libros/buscar/codigo/{codigo}", "COD-3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categoria.nombre").exists());
+
+        assertEquals(1, estadisticas().getPrepareStatementCount());
+    }
+
+    @Test
+    void loteUsaUnaSolaSentenciaYLuegoLaCache() throws Exception {
+        String cuerpo = "{\"ids\": [" + (primerId + 1) + ", 999999, " + primerId + "], "
+                + "\"codigos\": [\"COD-5\", \"NO-EXISTE\"]}";
+
+        mockMvc.perform(post("/libros/lote").contentType(MediaType.APPLICATION_JSON).content(cuerpo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.porId[0].libro.id").value(primerId + 1))
+                .andExpect(jsonPath("$.porId[1].encontrado").value(false))
+                .andExpect(jsonPath("$.porId[2].libro.id").value(primerId))
+                .andExpect(jsonPath("$.porCodigo[0].libro.categoria.nombre").exists())
+                .andExpect(jsonPath("$.porCodigo[1].encontrado").value(false))
+                .andExpect(jsonPath("$.faltantes").value(2));
+        assertEquals(1, estadisticas().getPrepareStatementCount());
+
+        // Solo los faltantes vuelven a consultarse
+        estadisticas().clear();
+        mockMvc.perform(post("/libros/lote").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [" + primerId + "], \"codigos\": [\"COD-5\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.faltantes").value(0));
+        assertEquals(0, estadisticas().getPrepareStatementCount());
+    }
+
+    @Test
+    void listarEnFormatosBinariosDevuelveLoMismoQueJson() throws Exception {
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+        MediaType cbor = MediaType.parseMediaType("application/cbor");
+
+        byte[] enSmile = mockMvc.perform(get("/libros").accept(smile))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(smile))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] enCbor = mockMvc.perform(get("/libros").accept(cbor))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(cbor))
+                .andReturn().getResponse().getContentAsByteArray();
+        String enJson = mockMvc.perform(get("/libros").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode json = new ObjectMapper().readTree(enJson);
+        assertEquals(TOTAL_LIBROS, json.size());
+        assertEquals(json, new ObjectMapper(new SmileFactory()).readTree(enSmile));
+        assertEquals(json, new ObjectMapper(new CBORFactory()).readTree(enCbor));
+    }
+
+    @Test
+    void buscarTextoNoConsultaLaBaseDeDatos() throws Exception {
+        // Los libros se guardaron directo en el repositorio, sin eventos: el índice se carga como al arrancar
+        cargadorIndicesLibros.cargar();
+        estadisticas().clear();
+
+        mockMvc.perform(get("/libros/buscar").param("q", "titulo 3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(TOTAL_LIBROS))
+                .andExpect(jsonPath("$[0].codigo").value("COD-3"));
+
+        assertEquals(0, estadisticas().getPrepareStatementCount());
+    }
+
+    private Statistics estadisticas() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
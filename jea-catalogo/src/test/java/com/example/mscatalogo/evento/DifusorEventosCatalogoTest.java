@@ -0,0 +1,154 @@
+package com.example.mscatalogo.evento;
+
+import com.example.mscatalogo.dto.EventoCatalogoDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reposición desde el historial, REINICIAR y desconexión de consumidores lentos, sin servidor:
+ * los emisores guardan lo que se les envía y el envío corre en el mismo hilo.
+ */
+class DifusorEventosCatalogoTest {
+
+    private static final Pattern ID = Pattern.compile("id:(\\S+)");
+
+    private final List<EmisorCapturado> emisores = new ArrayList<>();
+
+    @Test
+    void reconectarRecibeLoQueSePerdioDesdeElHistorial() {
+        DifusorEventosCatalogo difusor = difusor(Runnable::run, 10, 100, 100);
+        difusor.suscribir(null);
+        EmisorCapturado primero = emisores.get(0);
+
+        for (long id = 1; id <= 3; id++) {
+            difusor.alCambiarCategoria(CategoriaCambiadaEvento.eliminada(id));
+        }
+        assertEquals(3, primero.ids.size());
+
+        difusor.suscribir(primero.ids.get(0));
+        EmisorCapturado reconectado = emisores.get(1);
+
+        assertEquals(List.of(primero.ids.get(1), primero.ids.get(2)), reconectado.ids);
+        assertEquals(List.of(2L, 3L), reconectado.eventos.stream().map(EventoCatalogoDto::getId).toList());
+    }
+
+    @Test
+    void reconectarAlDiaNoRecibeNada() {
+        DifusorEventosCatalogo difusor = difusor(Runnable::run, 10, 100, 100);
+        difusor.suscribir(null);
+        difusor.alCambiarCategoria(CategoriaCambiadaEvento.eliminada(1L));
+
+        difusor.suscribir(emisores.get(0).ids.get(0));
+
+        assertTrue(emisores.get(1).eventos.isEmpty());
+    }
+
+    @Test
+    void idDeOtraEpocaRecibeReiniciar() {
+        DifusorEventosCatalogo difusor = difusor(Runnable::run, 10, 100, 100);
+        difusor.alCambiarCategoria(CategoriaCambiadaEvento.eliminada(1L));
+
+        // Misma secuencia que acaba de publicar esta instancia, pero emitida antes de un reinicio
+        difusor.suscribir("otraepoca-1");
+
+        assertReiniciar(emisores.get(0));
+    }
+
+    @Test
+    void idMasAdelanteQueLaSecuenciaRecibeReiniciar() {
+        DifusorEventosCatalogo difusor = difusor(Runnable::run, 10, 100, 100);
+        difusor.suscribir(null);
+        difusor.alCambiarCategoria(CategoriaCambiadaEvento.eliminada(1L));
+        String id = emisores.get(0).ids.get(0);
+
+        difusor.suscribir(id.substring(0, id.lastIndexOf('-')) + "-50");
+
+        assertReiniciar(emisores.get(1));
+    }
+
+    @Test
+    void idFueraDelHistorialRecibeReiniciar() {
+        DifusorEventosCatalogo difusor = difusor(Runnable::run, 10, 100, 2);
+        difusor.suscribir(null);
+        for (long id = 1; id <= 5; id++) {
+            difusor.alCambiarCategoria(CategoriaCambiadaEvento.eliminada(id));
+        }
+
+        difusor.suscribir(emisores.get(0).ids.get(0));
+
+        assertReiniciar(emisores.get(1));
+    }
+
+    @Test
+    void consumidorLentoSeDesconectaSinFrenarALosDemas() {
+        // El hilo de envío nunca corre: la cola del suscriptor se llena como con un cliente bloqueado
+        List<Runnable> envios = new ArrayList<>();
+        DifusorEventosCatalogo difusor = difusor(envios::add, 1, 2, 100);
+        assertNotNull(difusor.suscribir(null));
+        assertNull(difusor.suscribir(null));
+
+        for (long id = 1; id <= 3; id++) {
+            difusor.alCambiarCategoria(CategoriaCambiadaEvento.eliminada(id));
+        }
+
+        // Se liberó su lugar, y su envío pendiente termina la conexión sin mandar nada más
+        assertNotNull(difusor.suscribir(null));
+        envios.get(0).run();
+        assertTrue(emisores.get(0).ids.isEmpty());
+        assertTrue(emisores.get(0).completado);
+    }
+
+    private DifusorEventosCatalogo difusor(TaskExecutor executor, int maxSuscriptores, int cola, int historial) {
+        return new DifusorEventosCatalogo(executor, maxSuscriptores, cola, historial, 60000) {
+            @Override
+            SseEmitter crearEmitter() {
+                EmisorCapturado emisor = new EmisorCapturado();
+                emisores.add(emisor);
+                return emisor;
+            }
+        };
+    }
+
+    private static void assertReiniciar(EmisorCapturado emisor) {
+        assertEquals(1, emisor.eventos.size());
+        assertEquals(EventoCatalogoDto.ENTIDAD_FLUJO, emisor.eventos.get(0).getEntidad());
+        assertEquals(EventoCatalogoDto.ACCION_REINICIAR, emisor.eventos.get(0).getAccion());
+    }
+
+    private static final class EmisorCapturado extends SseEmitter {
+        private final List<String> ids = new ArrayList<>();
+        private final List<EventoCatalogoDto> eventos = new ArrayList<>();
+        private boolean completado;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            for (ResponseBodyEmitter.DataWithMediaType parte : builder.build()) {
+                if (parte.getData() instanceof EventoCatalogoDto evento) {
+                    eventos.add(evento);
+                } else {
+                    Matcher id = ID.matcher(parte.getData().toString());
+                    if (id.find()) {
+                        ids.add(id.group(1));
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            completado = true;
+        }
+    }
+}
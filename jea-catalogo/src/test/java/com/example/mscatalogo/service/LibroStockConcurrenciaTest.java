@@ -0,0 +1,150 @@
+package com.example.mscatalogo.service;
+
+import com.example.mscatalogo.entity.Libro;
+import com.example.mscatalogo.repository.LibroRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Muchos préstamos simultáneos sobre el mismo título: nunca se presta más de lo que hay
+ * y ninguna devolución se pierde.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LibroStockConcurrenciaTest {
+
+    private static final int STOCK = 50;
+    private static final int HILOS = 16;
+    private static final int OPERACIONES_POR_HILO = 20;
+
+    @Autowired
+    private LibroService libroService;
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    private Long libroId;
+
+    @BeforeEach
+    void crearLibro() {
+        libroRepository.deleteAll();
+
+        Libro libro = new Libro();
+        libro.setCodigo("STOCK-1");
+        libro.setTitulo("Libro muy solicitado");
+        libro.setAutor("Autor");
+        libro.setStockTotal(STOCK);
+        libro.setStockDisponible(STOCK);
+        libroId = libroRepository.save(libro).getId();
+    }
+
+    @Test
+    void reservasConcurrentesNoSobrepasanElStock() throws Exception {
+        int exitosas = ejecutarEnParalelo(() -> libroService.reservar(libroId, 1));
+
+        assertEquals(STOCK, exitosas);
+        assertEquals(0, stockDisponible());
+        assertThrows(IllegalStateException.class, () -> libroService.reservar(libroId, 1));
+    }
+
+    @Test
+    void devolucionesConcurrentesNoSePierden() throws Exception {
+        for (int i = 0; i < STOCK; i++) {
+            libroService.reservar(libroId, 1);
+        }
+
+        int exitosas = ejecutarEnParalelo(() -> libroService.devolver(libroId, 1));
+
+        assertEquals(STOCK, exitosas);
+        assertEquals(STOCK, stockDisponible());
+        assertThrows(IllegalStateException.class, () -> libroService.devolver(libroId, 1));
+    }
+
+    @Test
+    void reservasYDevolucionesMezcladasMantienenElInvariante() throws Exception {
+        AtomicInteger reservas = new AtomicInteger();
+        AtomicInteger devoluciones = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            boolean reserva = h % 2 == 0;
+            tareas.add(executor.submit(() -> {
+                salida.await();
+                for (int i = 0; i < OPERACIONES_POR_HILO; i++) {
+                    try {
+                        if (reserva) {
+                            libroService.reservar(libroId, 1);
+                            reservas.incrementAndGet();
+                        } else {
+                            libroService.devolver(libroId, 1);
+                            devoluciones.incrementAndGet();
+                        }
+                    } catch (IllegalStateException ignorada) {
+                        // sin stock o ya completo: se reintenta en la siguiente vuelta
+                    }
+                }
+                return null;
+            }));
+        }
+        salida.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int disponible = stockDisponible();
+        assertEquals(STOCK - reservas.get() + devoluciones.get(), disponible);
+        assertTrue(disponible >= 0 && disponible <= STOCK);
+    }
+
+    // Lanza HILOS x OPERACIONES_POR_HILO operaciones a la vez y cuenta las que no fueron rechazadas
+    private int ejecutarEnParalelo(Runnable operacion) throws Exception {
+        AtomicInteger exitosas = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+
+        for (int h = 0; h < HILOS; h++) {
+            tareas.add(executor.submit(() -> {
+                salida.await();
+                for (int i = 0; i < OPERACIONES_POR_HILO; i++) {
+                    try {
+                        operacion.run();
+                        exitosas.incrementAndGet();
+                    } catch (IllegalStateException rechazada) {
+                        // stock agotado o devolución que excede el total
+                    }
+                }
+                return null;
+            }));
+        }
+        salida.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        return exitosas.get();
+    }
+
+    private int stockDisponible() {
+        return libroRepository.findById(libroId).orElseThrow().getStockDisponible();
+    }
+}
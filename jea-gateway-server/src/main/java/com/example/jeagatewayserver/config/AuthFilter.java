@@ -1,25 +1,45 @@
 package com.example.jeagatewayserver.config;
 
-import com.example.jeagatewayserver.dto.TokenDto;
+import com.example.jeagatewayserver.security.ClavesJwksNoDisponiblesException;
+import com.example.jeagatewayserver.security.JeaAuthNoDisponibleException;
+import com.example.jeagatewayserver.security.ValidacionRemotaTokens;
+import com.example.jeagatewayserver.security.VerificadorJwt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+/**
+ * Exige un token válido de jea-auth. La firma y la vigencia se verifican aquí mismo con las claves
+ * de /auth/jwks. Con jwt.validacion-remota=true, además, cada token pasa por /auth/validate, que
+ * rechaza los de usuarios eliminados; también se usa si las claves no se pueden descargar.
+ * Esa consulta pasa por la caché de ValidacionRemotaTokens. Si no se puede decidir (sin claves y
+ * sin respuesta de jea-auth) se responde 503.
+ */
 @Component
 public class AuthFilter extends AbstractGatewayFilterFactory<AuthFilter.Config> {
 
-    private WebClient.Builder webClient;
+    private static final Logger log = LoggerFactory.getLogger(AuthFilter.class);
 
+    private final VerificadorJwt verificadorJwt;
+    private final ValidacionRemotaTokens validacionRemotaTokens;
+    private final boolean validacionRemota;
 
-    public AuthFilter(WebClient.Builder webClient) {
+
+    public AuthFilter(VerificadorJwt verificadorJwt,
+                      ValidacionRemotaTokens validacionRemotaTokens,
+                      @Value("${jwt.validacion-remota:false}") boolean validacionRemota) {
         super(Config.class);
-        this.webClient = webClient;
+        this.verificadorJwt = verificadorJwt;
+        this.validacionRemotaTokens = validacionRemotaTokens;
+        this.validacionRemota = validacionRemota;
     }
     @Override
     public GatewayFilter apply(Config config) {
@@ -34,17 +54,34 @@ public class AuthFilter extends AbstractGatewayFilterFactory<AuthFilter.Config>
             String [] chunks = tokenHeader.split(" ");
             if(chunks.length != 2 || !chunks[0].equals("Bearer"))
                 return onError(exchange, HttpStatus.BAD_REQUEST);
-            return webClient.build()
-                    .post()
-                    .uri("http://jea-auth-service/auth/validate?token=" + chunks[1])
-                    .retrieve().bodyToMono(TokenDto.class)
-                    .map(t -> {
-                        t.getToken();
-                        return exchange;
-                    }).flatMap(chain::filter);
+            String token = chunks[1];
+
+            Mono<Boolean> valido = verificadorJwt.verificar(token)
+                    .map(verificado -> true)
+                    .defaultIfEmpty(false)
+                    .flatMap(local -> local && validacionRemota
+                            ? validarRemoto(token)
+                            : Mono.just(local));
+            if (validacionRemota) {
+                valido = valido.onErrorResume(ClavesJwksNoDisponiblesException.class, e -> validarRemoto(token));
+            }
+            // Solo los errores de la verificación: los del servicio de destino siguen su curso
+            return valido
+                    .onErrorMap(e -> !(e instanceof JeaAuthNoDisponibleException),
+                            e -> new JeaAuthNoDisponibleException("No se pudo verificar el token", e))
+                    .flatMap(ok -> ok ? chain.filter(exchange) : onError(exchange, HttpStatus.UNAUTHORIZED))
+                    .onErrorResume(JeaAuthNoDisponibleException.class, e -> {
+                        log.warn("No se puede verificar el token: {}", e.getMessage());
+                        return onError(exchange, HttpStatus.SERVICE_UNAVAILABLE);
+                    });
         }));
     }
 
+    // Si jea-auth falla (conexión rechazada, 5xx) no se puede decidir: 503, igual que sin claves
+    private Mono<Boolean> validarRemoto(String token) {
+        return validacionRemotaTokens.validar(token)
+                .onErrorMap(e -> new JeaAuthNoDisponibleException("jea-auth no respondió /auth/validate", e));
+    }
 
     public Mono<Void> onError(ServerWebExchange exchange, HttpStatus status){
         ServerHttpResponse response = exchange.getResponse();
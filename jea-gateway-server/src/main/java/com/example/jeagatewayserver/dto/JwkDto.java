@@ -0,0 +1,18 @@
+package com.example.jeagatewayserver.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Clave pública RSA publicada por jea-auth en /auth/jwks
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class JwkDto {
+    private String kty;
+    private String use;
+    private String alg;
+    private String kid;
+    private String n;
+    private String e;
+}
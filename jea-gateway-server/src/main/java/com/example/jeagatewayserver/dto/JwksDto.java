@@ -0,0 +1,14 @@
+package com.example.jeagatewayserver.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class JwksDto {
+    private List<JwkDto> keys;
+}
@@ -0,0 +1,183 @@
+package com.example.jeagatewayserver.security;
+
+import com.example.jeagatewayserver.dto.JwkDto;
+import com.example.jeagatewayserver.dto.JwksDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Claves públicas de jea-auth, por kid. Se descargan de /auth/jwks la primera vez, se renuevan en
+ * segundo plano cada jwt.jwks-refresco-minutos y se vuelven a pedir si llega un kid desconocido
+ * (rotación de clave).
+ *
+ * Cada descarga agrega sus claves a las que ya había en lugar de reemplazarlas, y cada clave vence
+ * por su cuenta jwt.jwks-vigencia-minutos después de la última vez que alguna respuesta la trajo. Así
+ * una respuesta que no incluye una clave (otra instancia, a mitad de una rotación) no deja inválidos
+ * los tokens firmados con ella mientras siga vigente.
+ *
+ * Nunca hay más de una descarga a la vez, y entre un intento y el siguiente pasa al menos
+ * jwt.jwks-espera-segundos: tokens con kid inventado no se convierten en tráfico contra jea-auth.
+ */
+@Component
+public class ClavesJwks {
+
+    private static final Logger log = LoggerFactory.getLogger(ClavesJwks.class);
+
+    private final WebClient.Builder webClient;
+    private final String uri;
+    private final long refrescoNanos;
+    private final long esperaNanos;
+    private final long vigenciaNanos;
+    private final LongSupplier reloj;
+
+    private final Map<String, ClaveVigente> claves = new ConcurrentHashMap<>();
+    private volatile long ultimaCarga;
+    private volatile long ultimoIntento;
+    private volatile boolean intentado;
+
+    private final AtomicReference<Mono<Map<String, PublicKey>>> descargaEnCurso = new AtomicReference<>();
+
+    @Autowired
+    public ClavesJwks(WebClient.Builder webClient,
+                      @Value("${jwt.jwks-uri:http://jea-auth-service/auth/jwks}") String uri,
+                      @Value("${jwt.jwks-refresco-minutos:10}") long refrescoMinutos,
+                      @Value("${jwt.jwks-espera-segundos:30}") long esperaSegundos,
+                      @Value("${jwt.jwks-vigencia-minutos:120}") long vigenciaMinutos) {
+        this(webClient, uri, Duration.ofMinutes(refrescoMinutos), Duration.ofSeconds(esperaSegundos),
+                Duration.ofMinutes(vigenciaMinutos), System::nanoTime);
+    }
+
+    // Para las pruebas, que controlan el reloj
+    ClavesJwks(WebClient.Builder webClient, String uri, Duration refresco, Duration espera, Duration vigencia,
+               LongSupplier reloj) {
+        this.webClient = webClient;
+        this.uri = uri;
+        this.refrescoNanos = refresco.toNanos();
+        this.esperaNanos = espera.toNanos();
+        this.vigenciaNanos = vigencia.toNanos();
+        this.reloj = reloj;
+    }
+
+    /**
+     * La clave con ese kid; vacío si jea-auth no la publica. Error ClavesJwksNoDisponiblesException
+     * si no se pudo descargar y no queda ninguna vigente.
+     */
+    public Mono<PublicKey> clave(String kid) {
+        long ahora = reloj.getAsLong();
+        PublicKey clave = vigente(kid, ahora);
+        if (clave != null) {
+            if (ahora - ultimaCarga > refrescoNanos && puedeIntentar(ahora)) {
+                descargar().subscribe(m -> { }, e -> log.warn("No se pudieron renovar las claves JWKS: {}", e.toString()));
+            }
+            return Mono.just(clave);
+        }
+        if (!puedeIntentar(ahora)) {
+            return hayVigentes(ahora)
+                    ? Mono.empty()
+                    : Mono.error(new ClavesJwksNoDisponiblesException("Claves JWKS no disponibles", null));
+        }
+        return descargar().flatMap(nuevas -> Mono.justOrEmpty(vigente(kid, reloj.getAsLong())));
+    }
+
+    private PublicKey vigente(String kid, long ahora) {
+        ClaveVigente clave = claves.get(kid);
+        return clave != null && ahora - clave.vence < 0 ? clave.clave : null;
+    }
+
+    private boolean hayVigentes(long ahora) {
+        for (ClaveVigente clave : claves.values()) {
+            if (ahora - clave.vence < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean puedeIntentar(long ahora) {
+        return !intentado || ahora - ultimoIntento >= esperaNanos || descargaEnCurso.get() != null;
+    }
+
+    // Una sola descarga a la vez: quien llega mientras tanto espera el mismo resultado
+    private Mono<Map<String, PublicKey>> descargar() {
+        while (true) {
+            Mono<Map<String, PublicKey>> enCurso = descargaEnCurso.get();
+            if (enCurso != null) {
+                return enCurso;
+            }
+            Mono<Map<String, PublicKey>> nueva = Mono.defer(() -> {
+                        intentado = true;
+                        ultimoIntento = reloj.getAsLong();
+                        return webClient.build().get().uri(uri).retrieve().bodyToMono(JwksDto.class);
+                    })
+                    .map(ClavesJwks::convertir)
+                    .doOnNext(this::agregar)
+                    .onErrorMap(e -> !(e instanceof ClavesJwksNoDisponiblesException),
+                            e -> new ClavesJwksNoDisponiblesException("No se pudo descargar " + uri, e))
+                    .doFinally(senal -> descargaEnCurso.set(null))
+                    .cache();
+            if (descargaEnCurso.compareAndSet(null, nueva)) {
+                return nueva;
+            }
+        }
+    }
+
+    // Las claves recibidas renuevan su vencimiento; las que nadie volvió a publicar vencen solas
+    private void agregar(Map<String, PublicKey> nuevas) {
+        long ahora = reloj.getAsLong();
+        nuevas.forEach((kid, clave) -> claves.put(kid, new ClaveVigente(clave, ahora + vigenciaNanos)));
+        claves.values().removeIf(clave -> ahora - clave.vence >= 0);
+        ultimaCarga = ahora;
+    }
+
+    private static Map<String, PublicKey> convertir(JwksDto jwks) {
+        Map<String, PublicKey> nuevas = new HashMap<>();
+        if (jwks.getKeys() != null) {
+            for (JwkDto jwk : jwks.getKeys()) {
+                if (!"RSA".equals(jwk.getKty()) || jwk.getKid() == null
+                        || (jwk.getUse() != null && !"sig".equals(jwk.getUse()))) {
+                    continue;
+                }
+                try {
+                    Base64.Decoder decoder = Base64.getUrlDecoder();
+                    RSAPublicKeySpec spec = new RSAPublicKeySpec(
+                            new BigInteger(1, decoder.decode(jwk.getN())), new BigInteger(1, decoder.decode(jwk.getE())));
+                    nuevas.put(jwk.getKid(), KeyFactory.getInstance("RSA").generatePublic(spec));
+                } catch (GeneralSecurityException | IllegalArgumentException e) {
+                    log.warn("Clave JWKS {} ignorada: {}", jwk.getKid(), e.toString());
+                }
+            }
+        }
+        if (nuevas.isEmpty()) {
+            throw new ClavesJwksNoDisponiblesException("La respuesta de JWKS no tiene claves RSA", null);
+        }
+        return Map.copyOf(nuevas);
+    }
+
+    private static final class ClaveVigente {
+        private final PublicKey clave;
+        private final long vence; // en la escala de System.nanoTime
+
+        private ClaveVigente(PublicKey clave, long vence) {
+            this.clave = clave;
+            this.vence = vence;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.jeagatewayserver.security;
+
+/**
+ * No hay claves para verificar tokens porque jea-auth no respondió /auth/jwks.
+ */
+public class ClavesJwksNoDisponiblesException extends JeaAuthNoDisponibleException {
+
+    public ClavesJwksNoDisponiblesException(String mensaje, Throwable causa) {
+        super(mensaje, causa);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.jeagatewayserver.security;
+
+/**
+ * No se puede decidir si un token es válido porque jea-auth no respondió (conexión rechazada,
+ * error 5xx, tiempo agotado). El gateway responde 503, nunca 401 ni 500.
+ */
+public class JeaAuthNoDisponibleException extends RuntimeException {
+
+    public JeaAuthNoDisponibleException(String mensaje, Throwable causa) {
+        super(mensaje, causa);
+    }
+}
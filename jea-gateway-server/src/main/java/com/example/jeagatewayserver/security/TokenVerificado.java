@@ -0,0 +1,14 @@
+package com.example.jeagatewayserver.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+// Datos de un token con firma y vigencia ya comprobadas
+@Getter
+@AllArgsConstructor
+public class TokenVerificado {
+    private final String usuario;
+    private final Instant expiracion;
+}
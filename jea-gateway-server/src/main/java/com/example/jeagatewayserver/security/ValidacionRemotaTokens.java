@@ -0,0 +1,155 @@
+package com.example.jeagatewayserver.security;
+
+import com.example.jeagatewayserver.dto.TokenDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Consulta a /auth/validate con caché. La clave es el SHA-256 del token, nunca el token.
+ *
+ * - Un token válido se recuerda hasta jwt.cache.ttl-segundos, y nunca más allá de su exp: ese
+ *   máximo es lo que puede tardar en notarse una revocación.
+ * - Uno rechazado se recuerda jwt.cache.negativo-segundos, para que repetir un token malo no
+ *   llegue cada vez a jea-auth.
+ * - Varias peticiones con el mismo token mientras la consulta está en vuelo esperan esa misma
+ *   consulta (Caffeine comparte el futuro). Los errores de red no se guardan.
+ *
+ * Métricas: cache.gets{cache=tokensValidados} para la tasa de aciertos y
+ * gateway.tokens.validaciones.ahorradas para las consultas que no llegaron a jea-auth.
+ */
+@Component
+public class ValidacionRemotaTokens {
+
+    private static final String CACHE = "tokensValidados";
+
+    private final WebClient.Builder webClient;
+    private final ObjectMapper objectMapper;
+    private final long ttlNanos;
+    private final long negativoNanos;
+    private final AsyncCache<String, Resultado> cache;
+
+    private final LongAdder consultas = new LongAdder();
+    private final LongAdder remotas = new LongAdder();
+
+    public ValidacionRemotaTokens(WebClient.Builder webClient,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${jwt.cache.maximo:100000}") long maximo,
+                                  @Value("${jwt.cache.ttl-segundos:60}") long ttlSegundos,
+                                  @Value("${jwt.cache.negativo-segundos:10}") long negativoSegundos) {
+        this.webClient = webClient;
+        this.objectMapper = objectMapper;
+        this.ttlNanos = Duration.ofSeconds(ttlSegundos).toNanos();
+        this.negativoNanos = Duration.ofSeconds(negativoSegundos).toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfter(new Expiry<String, Resultado>() {
+                    @Override
+                    public long expireAfterCreate(String clave, Resultado resultado, long ahora) {
+                        return resultado.vigenciaNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String clave, Resultado resultado, long ahora, long restante) {
+                        return resultado.vigenciaNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String clave, Resultado resultado, long ahora, long restante) {
+                        return restante;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE);
+        FunctionCounter.builder("gateway.tokens.validaciones.ahorradas", this,
+                        v -> v.consultas.sum() - v.remotas.sum())
+                .description("Validaciones resueltas sin llamar a jea-auth (caché o consulta en vuelo)")
+                .register(meterRegistry);
+        FunctionCounter.builder("gateway.tokens.validaciones.remotas", remotas, LongAdder::sum)
+                .description("Llamadas a /auth/validate")
+                .register(meterRegistry);
+    }
+
+    /**
+     * true si jea-auth acepta el token. Error si jea-auth no respondió.
+     */
+    public Mono<Boolean> validar(String token) {
+        consultas.increment();
+        CompletableFuture<Resultado> resultado = cache.get(huella(token), (clave, executor) -> {
+            remotas.increment();
+            return consultar(token).toFuture();
+        });
+        // Cancelar una petición no debe cancelar la consulta que comparten las demás
+        return Mono.fromFuture(resultado, true).map(r -> r.valido);
+    }
+
+    private Mono<Resultado> consultar(String token) {
+        return webClient.build()
+                .post()
+                .uri("http://jea-auth-service/auth/validate?token={token}", token)
+                .retrieve().bodyToMono(TokenDto.class)
+                .map(t -> new Resultado(true, vigencia(token)))
+                // jea-auth responde 400 si el token no es válido o el usuario ya no existe
+                .onErrorResume(WebClientResponseException.BadRequest.class,
+                        e -> Mono.just(new Resultado(false, negativoNanos)))
+                .defaultIfEmpty(new Resultado(false, negativoNanos));
+    }
+
+    // El menor entre el TTL configurado y lo que le queda al token según su exp
+    private long vigencia(String token) {
+        try {
+            String[] partes = token.split("\\.", -1);
+            JsonNode cuerpo = objectMapper.readTree(Base64.getUrlDecoder().decode(partes[1]));
+            long exp = cuerpo.path("exp").asLong(0);
+            if (exp == 0) {
+                return ttlNanos;
+            }
+            long restante = Duration.between(Instant.now(), Instant.ofEpochSecond(exp)).toNanos();
+            return Math.max(0, Math.min(ttlNanos, restante));
+        } catch (IOException | RuntimeException e) {
+            return 0;
+        }
+    }
+
+    private static String huella(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Resultado {
+        private final boolean valido;
+        private final long vigenciaNanos;
+
+        private Resultado(boolean valido, long vigenciaNanos) {
+            this.valido = valido;
+            this.vigenciaNanos = vigenciaNanos;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.jeagatewayserver.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Verifica en el gateway los tokens emitidos por jea-auth: firma RS256 con la clave publicada en
+ * /auth/jwks y vigencia (exp, nbf). No hace ninguna llamada por petición; solo se descargan las
+ * claves cuando hace falta (ver ClavesJwks).
+ */
+@Component
+public class VerificadorJwt {
+
+    private static final String ALGORITMO = "RS256";
+
+    private final ClavesJwks clavesJwks;
+    private final ObjectMapper objectMapper;
+    private final long toleranciaSegundos;
+
+    public VerificadorJwt(ClavesJwks clavesJwks,
+                          ObjectMapper objectMapper,
+                          @Value("${jwt.tolerancia-reloj-segundos:30}") long toleranciaSegundos) {
+        this.clavesJwks = clavesJwks;
+        this.objectMapper = objectMapper;
+        this.toleranciaSegundos = toleranciaSegundos;
+    }
+
+    /**
+     * El token verificado, o vacío si es inválido o venció. Error ClavesJwksNoDisponiblesException
+     * si no se puede decidir porque no hay claves.
+     */
+    public Mono<TokenVerificado> verificar(String token) {
+        String[] partes = token.split("\\.", -1);
+        if (partes.length != 3) {
+            return Mono.empty();
+        }
+
+        JsonNode encabezado;
+        JsonNode cuerpo;
+        byte[] firma;
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            encabezado = objectMapper.readTree(decoder.decode(partes[0]));
+            cuerpo = objectMapper.readTree(decoder.decode(partes[1]));
+            firma = decoder.decode(partes[2]);
+        } catch (IOException | IllegalArgumentException e) {
+            return Mono.empty();
+        }
+
+        // Solo el algoritmo que usa jea-auth: así un token "alg": "none" o HS256 nunca se acepta
+        if (!ALGORITMO.equals(encabezado.path("alg").asText()) || !encabezado.hasNonNull("kid")) {
+            return Mono.empty();
+        }
+
+        // Vigencia antes que firma: descartar un token vencido no cuesta una operación RSA
+        long ahora = Instant.now().getEpochSecond();
+        long exp = cuerpo.path("exp").asLong(0);
+        if (exp == 0 || exp + toleranciaSegundos < ahora
+                || cuerpo.path("nbf").asLong(0) - toleranciaSegundos > ahora) {
+            return Mono.empty();
+        }
+
+        byte[] firmado = (partes[0] + "." + partes[1]).getBytes(StandardCharsets.US_ASCII);
+        return clavesJwks.clave(encabezado.get("kid").asText())
+                .filter(clave -> firmaValida(clave, firmado, firma))
+                .map(clave -> new TokenVerificado(cuerpo.path("sub").asText(null), Instant.ofEpochSecond(exp)));
+    }
+
+    private static boolean firmaValida(PublicKey clave, byte[] firmado, byte[] firma) {
+        try {
+            Signature verificador = Signature.getInstance("SHA256withRSA");
+            verificador.initVerify(clave);
+            verificador.update(firmado);
+            return verificador.verify(firma);
+        } catch (GeneralSecurityException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.jeagatewayserver.config;
+
+import com.example.jeagatewayserver.security.ClavesJwksNoDisponiblesException;
+import com.example.jeagatewayserver.security.TokenVerificado;
+import com.example.jeagatewayserver.security.ValidacionRemotaTokens;
+import com.example.jeagatewayserver.security.VerificadorJwt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Qué responde el gateway según el resultado de la verificación local y de /auth/validate.
+ */
+class AuthFilterTest {
+
+    private static final String TOKEN = "encabezado.cuerpo.firma";
+
+    private VerificadorJwt verificadorJwt;
+    private ValidacionRemotaTokens validacionRemotaTokens;
+
+    private final AtomicBoolean reenviada = new AtomicBoolean();
+    private final GatewayFilterChain chain = exchange -> {
+        reenviada.set(true);
+        return Mono.empty();
+    };
+
+    @BeforeEach
+    void preparar() {
+        verificadorJwt = mock(VerificadorJwt.class);
+        validacionRemotaTokens = mock(ValidacionRemotaTokens.class);
+    }
+
+    @Test
+    void unTokenValidoPasa() {
+        when(verificadorJwt.verificar(TOKEN)).thenReturn(Mono.just(verificado()));
+
+        filtrar(false);
+
+        assertTrue(reenviada.get());
+        verify(validacionRemotaTokens, never()).validar(TOKEN);
+    }
+
+    @Test
+    void unTokenInvalidoEs401() {
+        when(verificadorJwt.verificar(TOKEN)).thenReturn(Mono.empty());
+
+        assertEquals(HttpStatus.UNAUTHORIZED, filtrar(false).getResponse().getStatusCode());
+        assertFalse(reenviada.get());
+    }
+
+    @Test
+    void sinAuthorizationEs400() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/libros").build());
+        filtro(false).filter(exchange, chain).block();
+
+        assertEquals(HttpStatus.BAD_REQUEST, exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    void sinClavesYSinValidacionRemotaEs503() {
+        when(verificadorJwt.verificar(TOKEN)).thenReturn(sinClaves());
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, filtrar(false).getResponse().getStatusCode());
+        assertFalse(reenviada.get());
+        verify(validacionRemotaTokens, never()).validar(TOKEN);
+    }
+
+    @Test
+    void sinClavesConValidacionRemotaDecideJeaAuth() {
+        when(verificadorJwt.verificar(TOKEN)).thenReturn(sinClaves());
+        when(validacionRemotaTokens.validar(TOKEN)).thenReturn(Mono.just(true));
+
+        filtrar(true);
+
+        assertTrue(reenviada.get());
+    }
+
+    @Test
+    void sinClavesYJeaAuthRechazaEs401() {
+        when(verificadorJwt.verificar(TOKEN)).thenReturn(sinClaves());
+        when(validacionRemotaTokens.validar(TOKEN)).thenReturn(Mono.just(false));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, filtrar(true).getResponse().getStatusCode());
+    }
+
+    @Test
+    void sinClavesYJeaAuthCaidoEs503() {
+        when(verificadorJwt.verificar(TOKEN)).thenReturn(sinClaves());
+        when(validacionRemotaTokens.validar(TOKEN)).thenReturn(Mono.error(new ConnectException("Connection refused")));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, filtrar(true).getResponse().getStatusCode());
+        assertFalse(reenviada.get());
+    }
+
+    @Test
+    void validacionRemotaCon5xxEs503() {
+        when(verificadorJwt.verificar(TOKEN)).thenReturn(Mono.just(verificado()));
+        when(validacionRemotaTokens.validar(TOKEN)).thenReturn(Mono.error(WebClientResponseException.create(
+                HttpStatus.INTERNAL_SERVER_ERROR.value(), "Internal Server Error", HttpHeaders.EMPTY, new byte[0], null)));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, filtrar(true).getResponse().getStatusCode());
+        assertFalse(reenviada.get());
+    }
+
+    @Test
+    void unErrorDelServicioDeDestinoNoSeConvierteEn503() {
+        when(verificadorJwt.verificar(TOKEN)).thenReturn(Mono.just(verificado()));
+        IllegalStateException error = new IllegalStateException("fallo aguas abajo");
+        GatewayFilterChain falla = exchange -> Mono.error(error);
+
+        MockServerWebExchange exchange = intercambio();
+        Throwable lanzado = filtro(false).filter(exchange, falla)
+                .then(Mono.<Throwable>empty())
+                .onErrorResume(Mono::just)
+                .block();
+
+        assertEquals(error, lanzado);
+    }
+
+    private MockServerWebExchange filtrar(boolean validacionRemota) {
+        MockServerWebExchange exchange = intercambio();
+        filtro(validacionRemota).filter(exchange, chain).block();
+        return exchange;
+    }
+
+    private GatewayFilter filtro(boolean validacionRemota) {
+        return new AuthFilter(verificadorJwt, validacionRemotaTokens, validacionRemota).apply(new AuthFilter.Config());
+    }
+
+    private static MockServerWebExchange intercambio() {
+        return MockServerWebExchange.from(MockServerHttpRequest.method(HttpMethod.GET, "/libros")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .build());
+    }
+
+    private static Mono<TokenVerificado> sinClaves() {
+        return Mono.error(new ClavesJwksNoDisponiblesException("sin claves", null));
+    }
+
+    private static TokenVerificado verificado() {
+        return new TokenVerificado("admin", Instant.now().plusSeconds(3600));
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.jeagatewayserver.security;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Descarga de claves contra un /auth/jwks simulado, con el reloj bajo control.
+ */
+class ClavesJwksTest {
+
+    private static final Duration REFRESCO = Duration.ofMinutes(10);
+    private static final Duration ESPERA = Duration.ofSeconds(30);
+    private static final Duration VIGENCIA = Duration.ofMinutes(120);
+
+    private static KeyPair par1;
+    private static KeyPair par2;
+
+    private final AtomicLong reloj = new AtomicLong(Duration.ofDays(1).toNanos());
+    private final AtomicInteger descargas = new AtomicInteger();
+
+    // Lo que responde /auth/jwks: las claves publicadas, o null para responder 503
+    private volatile List<String[]> publicadas;
+
+    private ClavesJwks claves;
+
+    @BeforeAll
+    static void generarClaves() throws Exception {
+        KeyPairGenerator generador = KeyPairGenerator.getInstance("RSA");
+        generador.initialize(2048);
+        par1 = generador.generateKeyPair();
+        par2 = generador.generateKeyPair();
+    }
+
+    @BeforeEach
+    void preparar() {
+        WebClient.Builder webClient = WebClient.builder().exchangeFunction(peticion -> {
+            descargas.incrementAndGet();
+            List<String[]> actuales = publicadas;
+            if (actuales == null) {
+                return Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+            }
+            String json = actuales.stream()
+                    .map(c -> "{\"kty\":\"RSA\",\"use\":\"sig\",\"alg\":\"RS256\",\"kid\":\"" + c[0]
+                            + "\",\"n\":\"" + c[1] + "\",\"e\":\"" + c[2] + "\"}")
+                    .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(json)
+                    .build());
+        });
+        claves = new ClavesJwks(webClient, "http://jea-auth-service/auth/jwks", REFRESCO, ESPERA, VIGENCIA, reloj::get);
+    }
+
+    @Test
+    void descargaUnaVezYDespuesRespondeDeMemoria() {
+        publicar(jwk("k1", par1));
+
+        assertEquals(par1.getPublic(), claves.clave("k1").block());
+        assertEquals(par1.getPublic(), claves.clave("k1").block());
+        assertEquals(1, descargas.get());
+    }
+
+    @Test
+    void unKidDesconocidoVuelveADescargar() {
+        publicar(jwk("k1", par1));
+        claves.clave("k1").block();
+
+        // Rotación en jea-auth: aparece k2
+        publicar(jwk("k1", par1), jwk("k2", par2));
+        avanzar(ESPERA);
+
+        assertEquals(par2.getPublic(), claves.clave("k2").block());
+        assertEquals(2, descargas.get());
+    }
+
+    @Test
+    void losKidDesconocidosNoDescarganMasDeUnaVezPorEspera() {
+        publicar(jwk("k1", par1));
+        claves.clave("k1").block();
+
+        for (int i = 0; i < 50; i++) {
+            assertFalse(claves.clave("inventado-" + i).blockOptional().isPresent());
+        }
+        assertEquals(1, descargas.get());
+
+        avanzar(ESPERA);
+        assertFalse(claves.clave("inventado").blockOptional().isPresent());
+        assertEquals(2, descargas.get());
+    }
+
+    @Test
+    void unaRespuestaSinUnaClaveNoLaQuitaMientrasEsteVigente() {
+        publicar(jwk("k1", par1));
+        claves.clave("k1").block();
+
+        // Otra instancia publica solo k2
+        publicar(jwk("k2", par2));
+        avanzar(ESPERA);
+        assertEquals(par2.getPublic(), claves.clave("k2").block());
+
+        assertEquals(par1.getPublic(), claves.clave("k1").block());
+        assertEquals(2, descargas.get());
+    }
+
+    @Test
+    void unaClaveQueNadieVuelveAPublicarVence() {
+        publicar(jwk("k1", par1));
+        claves.clave("k1").block();
+
+        publicar(jwk("k2", par2));
+        avanzar(VIGENCIA);
+
+        assertFalse(claves.clave("k1").blockOptional().isPresent());
+        assertTrue(claves.clave("k2").blockOptional().isPresent());
+    }
+
+    @Test
+    void sinRespuestaDeJeaAuthNoHayClaves() {
+        publicadas = null;
+
+        assertThrows(ClavesJwksNoDisponiblesException.class, () -> claves.clave("k1").block());
+        // Dentro de la espera ni siquiera se intenta: sigue sin claves
+        assertThrows(ClavesJwksNoDisponiblesException.class, () -> claves.clave("k1").block());
+        assertEquals(1, descargas.get());
+    }
+
+    @Test
+    void unaCaidaDeJeaAuthNoBorraLasClavesYaDescargadas() {
+        publicar(jwk("k1", par1));
+        claves.clave("k1").block();
+
+        publicadas = null;
+        avanzar(REFRESCO.plusSeconds(1));
+
+        // Dispara la renovación en segundo plano, que falla, y sigue usando la clave conocida
+        assertEquals(par1.getPublic(), claves.clave("k1").block());
+        assertEquals(par1.getPublic(), claves.clave("k1").block());
+    }
+
+    private void publicar(String[]... jwks) {
+        publicadas = Arrays.asList(jwks);
+    }
+
+    private void avanzar(Duration duracion) {
+        reloj.addAndGet(duracion.toNanos());
+    }
+
+    private static String[] jwk(String kid, KeyPair par) {
+        RSAPublicKey clave = (RSAPublicKey) par.getPublic();
+        return new String[]{kid, base64Url(clave.getModulus()), base64Url(clave.getPublicExponent())};
+    }
+
+    private static String base64Url(BigInteger valor) {
+        byte[] bytes = valor.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.jeagatewayserver.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Lo que el gateway acepta sin consultar a jea-auth: solo RS256 firmado con una clave publicada y
+ * dentro de su vigencia.
+ */
+class VerificadorJwtTest {
+
+    private static final String KID = "clave-1";
+    private static final String RS256 = "{\"alg\":\"RS256\",\"kid\":\"" + KID + "\"}";
+
+    private static KeyPair par;
+    private static KeyPair otroPar;
+
+    private ClavesJwks clavesJwks;
+    private VerificadorJwt verificador;
+
+    @BeforeAll
+    static void generarClaves() throws Exception {
+        KeyPairGenerator generador = KeyPairGenerator.getInstance("RSA");
+        generador.initialize(2048);
+        par = generador.generateKeyPair();
+        otroPar = generador.generateKeyPair();
+    }
+
+    @BeforeEach
+    void preparar() {
+        clavesJwks = mock(ClavesJwks.class);
+        when(clavesJwks.clave(anyString())).thenReturn(Mono.empty());
+        when(clavesJwks.clave(KID)).thenReturn(Mono.just(par.getPublic()));
+        verificador = new VerificadorJwt(clavesJwks, new ObjectMapper(), 30);
+    }
+
+    @Test
+    void aceptaUnTokenValido() throws Exception {
+        long exp = ahora() + 3600;
+        Optional<TokenVerificado> verificado = verificar(rs256(RS256, cuerpo(exp, 0), par));
+
+        assertTrue(verificado.isPresent());
+        assertEquals("admin", verificado.get().getUsuario());
+        assertEquals(Instant.ofEpochSecond(exp), verificado.get().getExpiracion());
+    }
+
+    @Test
+    void rechazaAlgNoneSinBuscarClaves() {
+        String token = b64("{\"alg\":\"none\",\"kid\":\"" + KID + "\"}") + "." + b64(cuerpo(ahora() + 3600, 0)) + ".";
+
+        assertFalse(verificar(token).isPresent());
+        verify(clavesJwks, never()).clave(anyString());
+    }
+
+    @Test
+    void rechazaHs256AunqueLaFirmaUseLaClavePublica() throws Exception {
+        // Confusión de algoritmos: HMAC con la clave pública RSA como secreto
+        String firmado = b64("{\"alg\":\"HS256\",\"kid\":\"" + KID + "\"}") + "." + b64(cuerpo(ahora() + 3600, 0));
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(par.getPublic().getEncoded(), "HmacSHA256"));
+        String token = firmado + "." + b64(mac.doFinal(firmado.getBytes(StandardCharsets.US_ASCII)));
+
+        assertFalse(verificar(token).isPresent());
+        verify(clavesJwks, never()).clave(anyString());
+    }
+
+    @Test
+    void rechazaUnTokenVencido() throws Exception {
+        // Más allá de los 30 segundos de tolerancia
+        assertFalse(verificar(rs256(RS256, cuerpo(ahora() - 31, 0), par)).isPresent());
+    }
+
+    @Test
+    void aceptaUnTokenRecienVencidoDentroDeLaTolerancia() throws Exception {
+        assertTrue(verificar(rs256(RS256, cuerpo(ahora() - 5, 0), par)).isPresent());
+    }
+
+    @Test
+    void rechazaUnTokenConNbfEnElFuturo() throws Exception {
+        assertFalse(verificar(rs256(RS256, cuerpo(ahora() + 3600, ahora() + 120), par)).isPresent());
+    }
+
+    @Test
+    void rechazaUnTokenSinExp() throws Exception {
+        assertFalse(verificar(rs256(RS256, "{\"sub\":\"admin\"}", par)).isPresent());
+    }
+
+    @Test
+    void rechazaUnaFirmaAlterada() throws Exception {
+        String token = rs256(RS256, cuerpo(ahora() + 3600, 0), par);
+        byte[] firma = Base64.getUrlDecoder().decode(token.substring(token.lastIndexOf('.') + 1));
+        firma[firma.length / 2] ^= 1;
+        String alterado = token.substring(0, token.lastIndexOf('.') + 1) + b64(firma);
+
+        assertFalse(verificar(alterado).isPresent());
+    }
+
+    @Test
+    void rechazaUnCuerpoAlteradoConLaFirmaOriginal() throws Exception {
+        String token = rs256(RS256, cuerpo(ahora() + 3600, 0), par);
+        String[] partes = token.split("\\.");
+        String alterado = partes[0] + "." + b64("{\"sub\":\"otro\",\"exp\":" + (ahora() + 3600) + "}") + "." + partes[2];
+
+        assertFalse(verificar(alterado).isPresent());
+    }
+
+    @Test
+    void rechazaUnTokenFirmadoConOtraClave() throws Exception {
+        assertFalse(verificar(rs256(RS256, cuerpo(ahora() + 3600, 0), otroPar)).isPresent());
+    }
+
+    @Test
+    void rechazaUnKidQueJeaAuthNoPublica() throws Exception {
+        String token = rs256("{\"alg\":\"RS256\",\"kid\":\"desconocido\"}", cuerpo(ahora() + 3600, 0), par);
+
+        assertFalse(verificar(token).isPresent());
+        verify(clavesJwks).clave("desconocido");
+    }
+
+    @Test
+    void rechazaBasuraSinLanzar() {
+        assertFalse(verificar("no-es-un-token").isPresent());
+        assertFalse(verificar("a.b.c").isPresent());
+    }
+
+    @Test
+    void propagaQueNoHayClaves() throws Exception {
+        when(clavesJwks.clave(KID)).thenReturn(Mono.error(new ClavesJwksNoDisponiblesException("sin claves", null)));
+        String token = rs256(RS256, cuerpo(ahora() + 3600, 0), par);
+
+        assertThrows(ClavesJwksNoDisponiblesException.class, () -> verificador.verificar(token).block());
+    }
+
+    private Optional<TokenVerificado> verificar(String token) {
+        return verificador.verificar(token).blockOptional();
+    }
+
+    private static String rs256(String encabezado, String cuerpo, KeyPair par) throws Exception {
+        String firmado = b64(encabezado) + "." + b64(cuerpo);
+        Signature firma = Signature.getInstance("SHA256withRSA");
+        firma.initSign(par.getPrivate());
+        firma.update(firmado.getBytes(StandardCharsets.US_ASCII));
+        return firmado + "." + b64(firma.sign());
+    }
+
+    private static String cuerpo(long exp, long nbf) {
+        return "{\"sub\":\"admin\",\"exp\":" + exp + (nbf == 0 ? "" : ",\"nbf\":" + nbf) + "}";
+    }
+
+    private static long ahora() {
+        return Instant.now().getEpochSecond();
+    }
+
+    private static String b64(String texto) {
+        return b64(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String b64(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}